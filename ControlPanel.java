@@ -6,7 +6,8 @@ import java.awt.event.ActionListener;
 /**
  * The ControlPanel class extends JPanel and provides a user interface
  * for controlling the InterceptionSimulation. It includes buttons to start
- * and reset the simulation, as well as configurable parameters for the simulation settings.
+ * and reset the simulation and to plan the launch with LaunchPlanner, as well as
+ * configurable parameters for the simulation settings.
  */
 public class ControlPanel extends JPanel {
 
@@ -21,10 +22,12 @@ public class ControlPanel extends JPanel {
         // Create the Start Simulation and Reset buttons
         JButton startButton = new JButton("Start");
         JButton resetButton = new JButton("Reset");
+        JButton planButton = new JButton("Plan");
 
         // Disable focus traversal for buttons to prevent accidental key focus
         startButton.setFocusable(false);
         resetButton.setFocusable(false);
+        planButton.setFocusable(false);
 
         // Create Parameter objects for various simulation settings
         Parameter projectileX = new Parameter(Value.projectileXDefault, Value.projectileXMin, Value.projectileXMax, Value.step, "Projectile x:");
@@ -53,6 +56,17 @@ public class ControlPanel extends JPanel {
         // Add ActionListener to the Reset button to reset the simulation
         resetButton.addActionListener(e -> simulation.resetSimulation());
 
+        // Add ActionListener to the Plan button to show the best launch time from radar time onwards
+        planButton.addActionListener(e -> {
+            Projectile projectile = new Projectile((int) projectileX.spinner.getValue(),
+                    (int) projectileY.spinner.getValue(),
+                    (int) projectileSpeed.spinner.getValue(),
+                    (int) impactX.spinner.getValue());
+            Launcher launcher = new Launcher((int) launcherX.spinner.getValue(), (int) launcherSpeed.spinner.getValue());
+            LaunchPlanner.Plan plan = new LaunchPlanner().plan(projectile, launcher, (double) radar.spinner.getValue());
+            JOptionPane.showMessageDialog(simulation, plan.toString());
+        });
+
         // Add the parameters to the control panel
         addParameter(projectileX);
         addParameter(projectileY);
@@ -65,6 +79,7 @@ public class ControlPanel extends JPanel {
         // Add the buttons to the control panel
         add(startButton);
         add(resetButton);
+        add(planButton);
 
         // Set the preferred size of the control panel
         setPreferredSize(new Dimension(120, 50));
@@ -0,0 +1,287 @@
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The FrameExporter class renders frames of the InterceptionSimulation offscreen and writes them
+ * as a numbered PNG image sequence. Frames are recorded by stepping the engagement with
+ * Interception.step, without the simulation panel and its timer, so the export speed does not
+ * depend on real time. Each frame is rasterized and encoded on a pool of worker threads, with a
+ * bounded number of frames in flight at any time.
+ */
+public class FrameExporter {
+
+    private static final float COMPRESSION_QUALITY = 0.75f; // Favors encoding speed over file size
+    private static final double TICK = 0.016; // Simulated time per frame (~16 ms), as in InterceptionSimulation
+
+    private final int width, height; // Size of the exported images
+    private final int threads;       // Number of worker threads rasterizing and encoding frames
+    private final int maxInFlight;   // Maximum number of frames submitted but not yet written
+
+    /**
+     * Default constructor to export frames at the size of the simulation panel using all cores.
+     */
+    public FrameExporter() {
+        this(800, 600, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor to initialize the exporter with a specified image size and number of threads.
+     *
+     * @param width   The width of the exported images.
+     * @param height  The height of the exported images.
+     * @param threads The number of worker threads.
+     */
+    public FrameExporter(int width, int height, int threads) {
+        this.width = width;
+        this.height = height;
+        this.threads = threads;
+        this.maxInFlight = 2 * threads; // Keep every worker busy without holding the whole recording as images
+    }
+
+    /**
+     * Records the frames of a simulation run by stepping the engagement until it ends.
+     * The parameters are the same as for InterceptionSimulation.startSimulation.
+     *
+     * @return The recorded frames, starting with the initial state.
+     */
+    public static List<SceneFrame> record(double projectileX, double projectileY, double impactX, double launcherX, double projectileSpeed, double launcherSpeed, double radar) {
+        Projectile projectile = new Projectile(projectileX, projectileY, projectileSpeed, impactX);
+        Launcher launcher = new Launcher(launcherX, launcherSpeed);
+        Interception interception = new Interception(projectile, launcher);
+
+        List<SceneFrame> frames = new ArrayList<>();
+        double time = 0;
+        frames.add(new SceneFrame(projectile, launcher, interception, time, radar, false));
+        Interception.Status status = Interception.Status.RUNNING;
+        while (status == Interception.Status.RUNNING) {
+            time += TICK;
+            status = Interception.step(projectile, launcher, interception, time, radar);
+            frames.add(new SceneFrame(projectile, launcher, interception, time, radar, status != Interception.Status.IMPOSSIBLE));
+        }
+        return frames;
+    }
+
+    /**
+     * Renders the frames and writes them to a directory as frame_00000.png, frame_00001.png, etc.
+     *
+     * @param frames    The frames to export, for example from a run recorded with record.
+     * @param directory The directory to write the images to. It is created if it does not exist.
+     * @throws IOException If a frame cannot be encoded or written.
+     */
+    public void export(List<SceneFrame> frames, File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory: " + directory);
+        }
+
+        ImageIO.setUseCache(false); // Encode in memory instead of through temporary files
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<Future<?>> results = new ArrayList<>(frames.size());
+        try {
+            for (int i = 0; i < frames.size(); i++) {
+                SceneFrame frame = frames.get(i);
+                File file = new File(directory, String.format("frame_%05d.png", i));
+                inFlight.acquire(); // Wait until a frame in flight has been written
+                try {
+                    results.add(executor.submit(() -> {
+                        try {
+                            Files.write(file.toPath(), encode(render(frame)));
+                            return null;
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+            for (Future<?> result : results) {
+                result.get(); // Propagate the first failure, if any
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Rasterizes a single frame the same way the simulation panel paints itself.
+     * The scene only uses a handful of colors, so it is rendered into a small palette image,
+     * which is much faster to encode than a full RGB image.
+     *
+     * @param frame The frame to render.
+     * @return The rendered image.
+     */
+    public BufferedImage render(SceneFrame frame) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, Palettes.PALETTE);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setColor(Color.LIGHT_GRAY); // Same background as the simulation panel
+            g2d.fillRect(0, 0, width, height);
+            InterceptionSimulation.drawScene(g2d, height, frame.projectile(), frame.launcher(), frame.iX, frame.iY);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Encodes an image as PNG in memory.
+     *
+     * @param image The image to encode.
+     * @return The PNG bytes.
+     * @throws IOException If no PNG writer is available or encoding fails.
+     */
+    private static byte[] encode(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("png");
+        if (!writers.hasNext()) {
+            throw new IOException("No PNG writer available");
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(COMPRESSION_QUALITY);
+
+        // Pack the palette indices to 2 bits per pixel before encoding
+        BufferedImage packed = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_BINARY, Palettes.PACKED_PALETTE);
+        packed.getRaster().setRect(image.getRaster());
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(png)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(packed, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return png.toByteArray();
+    }
+
+    /**
+     * The Palettes class holds the palettes used for rendering. They are created on first use rather than
+     * when FrameExporter is loaded, because creating colors initializes AWT, which must not happen before
+     * main has switched AWT to headless mode.
+     */
+    private static class Palettes {
+        static final IndexColorModel PALETTE = createPalette(8); // Colors used by the simulation panel
+        static final IndexColorModel PACKED_PALETTE = createPalette(2); // Same colors at 2 bits per pixel
+    }
+
+    /**
+     * Creates the palette holding the colors used by the simulation panel.
+     *
+     * @param bits The number of bits per pixel.
+     */
+    private static IndexColorModel createPalette(int bits) {
+        Color[] colors = {Color.LIGHT_GRAY, Color.RED, Color.BLUE, Color.WHITE};
+        byte[] r = new byte[colors.length], g = new byte[colors.length], b = new byte[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            r[i] = (byte) colors[i].getRed();
+            g[i] = (byte) colors[i].getGreen();
+            b[i] = (byte) colors[i].getBlue();
+        }
+        return new IndexColorModel(bits, colors.length, r, g, b);
+    }
+
+    /**
+     * The SceneFrame class holds the state of the simulation at one time step.
+     * It stores only the values needed to rebuild the projectile and launcher for drawing,
+     * so frames can be rendered independently of each other.
+     */
+    public static class SceneFrame {
+        private final double projectileX, projectileY, projectileSpeed, impactX; // Projectile parameters
+        private final double launcherX, launcherSpeed; // Launcher parameters
+        private final double time;          // Time elapsed in the simulation
+        private final double launcherTime;  // Time elapsed since the launcher launched, or 0 before launch
+        private final double launchAngle;   // Launch angle of the launcher in radians
+        private final double iX, iY;        // The interception point's coordinates
+
+        /**
+         * Constructor to capture the current state of an engagement.
+         *
+         * @param projectile   The projectile of the engagement.
+         * @param launcher     The launcher of the engagement.
+         * @param interception The interception of the projectile by the launcher.
+         * @param time         The time elapsed in the simulation.
+         * @param radarTime    The time at which the launcher launches.
+         * @param launched     Whether the launcher may have moved in the last step.
+         */
+        SceneFrame(Projectile projectile, Launcher launcher, Interception interception, double time, double radarTime, boolean launched) {
+            projectileX = projectile.getX();
+            projectileY = projectile.getY();
+            projectileSpeed = projectile.getSpeed();
+            impactX = projectile.getTargetX();
+            launcherX = launcher.getX();
+            launcherSpeed = launcher.getSpeed();
+            this.time = time;
+            launcherTime = launched && time >= radarTime ? time - radarTime : 0;
+            launchAngle = interception.getLaunchAngle();
+            iX = interception.getIX();
+            iY = interception.getIY();
+        }
+
+        /**
+         * Rebuilds the projectile at the time of this frame.
+         */
+        Projectile projectile() {
+            Projectile projectile = new Projectile(projectileX, projectileY, projectileSpeed, impactX);
+            if (time > 0) projectile.update(time);
+            return projectile;
+        }
+
+        /**
+         * Rebuilds the launcher at the time of this frame.
+         */
+        Launcher launcher() {
+            Launcher launcher = new Launcher(launcherX, launcherSpeed);
+            if (launcherTime > 0) launcher.update(launcherTime, launchAngle);
+            return launcher;
+        }
+
+        public double getTime() { return time; }
+    }
+
+    /**
+     * Records a simulation run and exports it as an image sequence.
+     * Usage: java FrameExporter directory [projectileX projectileY impactX launcherX projectileSpeed launcherSpeed radar]
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true"); // Render without a display
+
+        File directory = new File(args.length > 0 ? args[0] : "frames");
+        double[] p = {Value.projectileXDefault, Value.projectileYDefault, Value.impactXDefault, Value.launcherXDefault,
+                Value.speedDefault, Value.speedDefault, Value.radarDefault};
+        for (int i = 1; i < args.length && i <= p.length; i++) {
+            p[i - 1] = Double.parseDouble(args[i]);
+        }
+
+        List<SceneFrame> frames = record(p[0], p[1], p[2], p[3], p[4], p[5], p[6]);
+        long start = System.nanoTime();
+        new FrameExporter().export(frames, directory);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Exported " + frames.size() + " frames (" + frames.get(frames.size() - 1).getTime()
+                + " s of simulation) to " + directory + " in " + elapsed / 1_000_000 + " ms");
+    }
+}
@@ -1,6 +1,7 @@
 /**
  * The Interception class calculates the interception point between a projectile and a launcher.
- * It calculates the required launch angle, velocity, and time to intercept the target.
+ * It calculates the required launch angle, velocity, and time to intercept the target, and steps
+ * an engagement the same way for the simulation panel, the frame export and the soak runner.
  */
 public class Interception {
 
@@ -49,19 +50,41 @@ public class Interception {
         return iY;
     }
 
+    /**
+     * Resets the calculated values so that the interception can be reused after its projectile
+     * and launcher have been reset.
+     */
+    public void reset() {
+        launchAngle = 0;
+        iX = iY = 0;
+        distanceFromIdentificationToImpact = 0;
+        vX = vY = t = 0;
+        hasInterceptionCalculated = false;
+    }
+
     /**
      * Calculates the interception point by determining the required velocity and time.
      * It uses radar time to estimate the position of the projectile and calculates the launcher
      * velocity to reach the interception point.
+     * The calculation does not allocate, so it can run every tick of a long simulation.
      * @param radarTime The time at which radar determines the position of the projectile
      */
     public void calcInterceptionPoint(double radarTime) {
-        // Calculate the projectile's data (current position, speed, etc.)
-        double[] pData = calcProjectileData(radarTime);
-        double px = pData[0]; // X position of the projectile
-        double py = pData[1]; // Y position of the projectile
-        double impactPointX = pData[2]; // Calculated X-coordinate of the impact point
-        double projectileSpeed = pData[3]; // Speed of the projectile
+        // Calculate the projectile's data at the time of radar detection
+        double px = projectile.getCurrentX(); // X position of the projectile
+        double py = projectile.getCurrentY(); // Y position of the projectile
+
+        // Calculate the distance between the initial position and current position
+        double distanceFromFirstToSecond = Utility.calcDistance(projectile.getX(), projectile.getY(), px, py);
+
+        // Calculate the speed of the projectile based on the distance and radar time
+        double projectileSpeed = distanceFromFirstToSecond / radarTime;
+
+        // Calculate the angle of the projectile's movement
+        double projectileAngle = Math.asin((px - projectile.getX()) / distanceFromFirstToSecond);
+
+        // Calculate the X-coordinate of the impact point
+        double impactPointX = px + py * Math.tan(projectileAngle);
 
         // Calculate the distance from the identification point (radar) to the impact point
         distanceFromIdentificationToImpact = Utility.calcDistance(px, py, impactPointX, projectile.getTargetY());
@@ -74,37 +97,51 @@ public class Interception {
         t = Utility.calcT(px, py, launcher.getX(), launcher.getY(), vX, vY, launcher.getSpeed());
 
         // Calculate the interception point using the calculated velocity and time
-        double[] interceptionPoint = Utility.findCorrectPoint(px, py, vX, vY, t);
-        iX = (int) interceptionPoint[0];
-        iY = (int) interceptionPoint[1];
+        iX = (int) (px + vX * t);
+        iY = (int) (py + vY * t);
 
         // Calculate the required launch angle
         launchAngle = Math.atan2(iY, iX - launcher.getCurrentX());
     }
 
     /**
-     * Calculates the data necessary to determine the projectile's position and speed
-     * at the time of radar detection.
-     * @param radarTime The time at which radar determines the position of the projectile
-     * @return An array containing the projectile's current position, impact point X, and speed
+     * Advances an engagement to a given time. It moves the projectile, calculates the interception
+     * once the radar time has passed, moves the launcher, and checks for interception or bounds.
+     * It does not allocate.
+     *
+     * @param projectile   The projectile to be intercepted.
+     * @param launcher     The launcher attempting the interception.
+     * @param interception The interception of the projectile by the launcher.
+     * @param time         The time elapsed since the projectile was launched.
+     * @param radarTime    The time at which radar determines the position of the projectile and the launcher launches.
+     * @return The status of the engagement after this step.
      */
-    private double[] calcProjectileData(double radarTime) {
-        double px = projectile.getCurrentX(); // Current X position of the projectile
-        double py = projectile.getCurrentY(); // Current Y position of the projectile
-
-        // Calculate the distance between the initial position and current position
-        double distanceFromFirstToSecond = Utility.calcDistance(projectile.getX(), projectile.getY(), px, py);
-
-        // Calculate the speed of the projectile based on the distance and radar time
-        double projectileSpeed = distanceFromFirstToSecond / radarTime;
-
-        // Calculate the angle of the projectile's movement
-        double projectileAngle = Math.asin((px - projectile.getX()) / distanceFromFirstToSecond);
-
-        // Calculate the X-coordinate of the impact point
-        double impactPointX = px + py * Math.tan(projectileAngle);
-
-        return new double[] {px, py, impactPointX, projectileSpeed};
+    public static Status step(Projectile projectile, Launcher launcher, Interception interception, double time, double radarTime) {
+        projectile.update(time); // Update the projectile's position
+
+        // If the time exceeds the radar time, calculate interception and update launcher
+        if (time >= radarTime) {
+            if (!interception.hasInterceptionCalculated) {
+                interception.calcInterceptionPoint(radarTime);
+                interception.hasInterceptionCalculated = true;
+            }
+
+            // If interception angle is too small or interception is impossible, stop the engagement
+            if (Math.toDegrees(interception.getLaunchAngle()) < Value.minLaunchAngle || (interception.getIX() == projectile.getX() && interception.getIY() == projectile.getY())) {
+                return Status.IMPOSSIBLE;
+            }
+            launcher.update(time - radarTime, interception.getLaunchAngle()); // Update launcher position
+        }
+
+        // Check if the launcher intercepts the projectile
+        if (launcher.intercepts(projectile)) {
+            return Status.INTERCEPTED;
+        }
+        // Check if the projectile goes out of bounds
+        else if (projectile.isOutOfBounds()) {
+            return Status.FAILED;
+        }
+        return Status.RUNNING;
     }
 
     /**
@@ -121,5 +158,20 @@ public class Interception {
         System.out.println("Interception point: (" + iX + ", " + iY + ")");
         System.out.println("Launch angle: " + Math.toDegrees(launchAngle) + " degrees");
     }
-}
 
+    /**
+     * The possible statuses of an engagement after a step, with the message shown to the user.
+     */
+    public enum Status {
+        RUNNING(null),
+        INTERCEPTED("Interception Successful!"),
+        FAILED("Interception Failed!"),
+        IMPOSSIBLE("Cannot intercept! Projectile is too fast");
+
+        final String message;
+
+        Status(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -34,10 +34,22 @@ public class InterceptionSimulation extends JPanel implements ActionListener {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g); // Call the superclass to ensure proper painting
-        Graphics2D g2d = (Graphics2D) g;
+        drawScene((Graphics2D) g, getHeight(), projectile, launcher, interception.getIX(), interception.getIY());
+    }
 
-        int panelHeight = getHeight();
-        g2d.translate(0, panelHeight); // Adjust coordinate system so y increases downwards
+    /**
+     * Draws the projectile, launcher, impact lines, and grid on a surface of a given height.
+     * It is shared by the panel and by the offscreen frame export.
+     *
+     * @param g2d        The Graphics2D object used for drawing.
+     * @param height     The height of the drawing surface.
+     * @param projectile The projectile to draw.
+     * @param launcher   The launcher to draw.
+     * @param iX         The X coordinate of the interception point.
+     * @param iY         The Y coordinate of the interception point.
+     */
+    static void drawScene(Graphics2D g2d, int height, Projectile projectile, Launcher launcher, double iX, double iY) {
+        g2d.translate(0, height); // Adjust coordinate system so y increases downwards
         g2d.scale(1, -1); // Flip the y-axis
 
         // Draw the projectile and launcher on the panel
@@ -45,65 +57,56 @@ public class InterceptionSimulation extends JPanel implements ActionListener {
         launcher.draw(g2d);
 
         // Draw the impact line from projectile to impact point
-        g.setColor(Color.WHITE);
-        g.drawLine((int) projectile.getX(), (int) projectile.getY(), (int) projectile.getTargetX(), 0);
+        g2d.setColor(Color.WHITE);
+        g2d.drawLine((int) projectile.getX(), (int) projectile.getY(), (int) projectile.getTargetX(), 0);
         // Draw the interception line from launcher to interception point
-        g.drawLine((int) launcher.getX(), 0, (int) interception.getIX(), (int) interception.getIY());
+        g2d.drawLine((int) launcher.getX(), 0, (int) iX, (int) iY);
 
         // Draw grid lines
         for (int i = 1; i < 20; i++) {
-            g.drawLine((int) i * 100, 0, (int) i * 100, (int) 1000);
+            g2d.drawLine((int) i * 100, 0, (int) i * 100, (int) 1000);
         }
         for (int i = 1; i < 10; i++) {
-            g.drawLine(0, i * 100, 2000, i * 100);
+            g2d.drawLine(0, i * 100, 2000, i * 100);
         }
     }
 
     /**
      * This method is called every time the timer ticks (approximately every 16 ms).
-     * It updates the state of the simulation, checks for interception or bounds, and repaints the panel.
+     * It advances the simulation by one step, reports the outcome, and repaints the panel.
      */
     @Override
     public void actionPerformed(ActionEvent e) {
         if (!running) return; // Exit if the simulation is not running
 
-        time += 0.016; // Increment the time by the elapsed frame time (~16 ms)
-        projectile.update(time); // Update the projectile's position
-
-        // If the time exceeds the radar time, calculate interception and update launcher
-        if (time >= radarTime) {
-            if (!interception.hasInterceptionCalculated) {
-                interception.calcInterceptionPoint(radarTime);
-                interception.print(); // Optionally print the interception information
-            }
-            interception.hasInterceptionCalculated = true;
-
-            // If interception angle is too small or interception is impossible, stop simulation
-            if (Math.toDegrees(interception.getLaunchAngle()) < 20 || (interception.getIX() == projectile.getX() && interception.getIY() == projectile.getY())) {
-                running = false;
-                timer.stop(); // Stop the timer
-                JOptionPane.showMessageDialog(this, "Cannot intercept! Projectile is too fast");
-                return;
-            }
-            launcher.update(time - radarTime, interception.getLaunchAngle()); // Update launcher position
-        }
-
-        // Check if the launcher intercepts the projectile
-        if (launcher.intercepts(projectile)) {
-            running = false; // Stop the simulation on successful interception
-            timer.stop(); // Stop the timer
-            JOptionPane.showMessageDialog(this, "Interception Successful!"); // Display success message
-        }
-        // Check if the projectile goes out of bounds
-        else if (projectile.isOutOfBounds()) {
-            running = false; // Stop the simulation on failure
+        Interception.Status status = step(); // Advance the simulation by one frame
+        if (status != Interception.Status.RUNNING) {
             timer.stop(); // Stop the timer
-            JOptionPane.showMessageDialog(this, "Interception Failed!"); // Display failure message
+            JOptionPane.showMessageDialog(this, status.message); // Display the outcome message
+            if (status == Interception.Status.IMPOSSIBLE) return;
         }
 
         repaint(); // Repaint the panel to reflect the updated simulation state
     }
 
+    /**
+     * Advances the simulation by one frame (~16 ms) with the shared Interception.step.
+     *
+     * @return The status of the simulation after this step.
+     */
+    Interception.Status step() {
+        time += 0.016; // Increment the time by the elapsed frame time (~16 ms)
+        boolean calculated = interception.hasInterceptionCalculated;
+        Interception.Status status = Interception.step(projectile, launcher, interception, time, radarTime);
+        if (!calculated && interception.hasInterceptionCalculated) {
+            interception.print(); // Optionally print the interception information
+        }
+        if (status != Interception.Status.RUNNING) {
+            running = false; // Stop the simulation once the engagement has ended
+        }
+        return status;
+    }
+
     /**
      * Starts the simulation with given parameters.
      * @param projectileX Initial x-coordinate of the projectile
@@ -117,9 +120,8 @@ public class InterceptionSimulation extends JPanel implements ActionListener {
     public void startSimulation(double projectileX, double projectileY, double impactX, double launcherX, double projectileSpeed, double launcherSpeed, double radar) {
         resetSimulation(); // Reset simulation before starting
         radarTime = radar; // Set radar time
-        projectile = new Projectile(projectileX, projectileY, projectileSpeed, impactX); // Initialize projectile
-        launcher = new Launcher(launcherX, launcherSpeed); // Initialize launcher
-        interception = new Interception(projectile, launcher); // Initialize interception logic
+        projectile.reset(projectileX, projectileY, projectileSpeed, impactX); // Initialize projectile
+        launcher.reset(launcherX, launcherSpeed); // Initialize launcher
         running = true; // Set the simulation state to running
         timer.start(); // Start the timer to begin the simulation
     }
@@ -128,9 +130,16 @@ public class InterceptionSimulation extends JPanel implements ActionListener {
      * Resets the simulation to its initial state.
      */
     public void resetSimulation() {
-        projectile = new Projectile(); // Reset the projectile to default values
-        launcher = new Launcher(); // Reset the launcher to default values
-        interception = new Interception(projectile, launcher); // Reset the interception object
+        if (projectile == null) {
+            projectile = new Projectile(); // Create the projectile with default values
+            launcher = new Launcher(); // Create the launcher with default values
+            interception = new Interception(projectile, launcher); // Create the interception object
+        } else {
+            // Reuse the existing objects instead of allocating new ones on every reset
+            projectile.reset(Value.projectileXDefault, Value.projectileYDefault, Value.speedDefault, Value.impactXDefault);
+            launcher.reset(Value.launcherXDefault, Value.speedDefault);
+            interception.reset();
+        }
         time = 0; // Reset time to 0
         running = false; // Set simulation to not running
         timer.stop(); // Stop the timer
@@ -0,0 +1,262 @@
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The LaunchPlanner class searches the launch-time window of a projectile for the launch time
+ * that gives the best interception. The window runs from the current time until the projectile
+ * reaches the ground, and a launch time is only accepted if the interception happens above the
+ * ground with an elevation of at least Value.minLaunchAngle. The elevation is measured from the
+ * nearest horizon, so a launch toward the negative X side is as constrained as one toward the positive side.
+ * The window is first scanned coarsely to bracket the best launch time, and the bracket is then
+ * refined with a golden-section search. Several projectiles are planned in parallel.
+ */
+public class LaunchPlanner {
+
+    /**
+     * The quantity the planner tries to maximize.
+     */
+    public enum Objective {
+        ALTITUDE, // Maximize the altitude of the interception point
+        MARGIN    // Maximize the margin between the launch elevation and the minimum launch angle
+    }
+
+    private static final double GOLDEN_RATIO = (Math.sqrt(5) - 1) / 2; // Inverse of the golden ratio (~0.618)
+
+    private final Objective objective; // The quantity to maximize
+    private final int scanSteps;       // Number of intervals in the coarse scan of the launch window
+    private final double tolerance;    // Width of the bracket (in seconds) at which the search stops
+
+    /**
+     * Default constructor to initialize the planner to maximize the interception altitude.
+     */
+    public LaunchPlanner() {
+        this(Objective.ALTITUDE, 32, 0.001);
+    }
+
+    /**
+     * Constructor to initialize the planner with a specified objective and search resolution.
+     *
+     * @param objective The quantity to maximize.
+     * @param scanSteps Number of intervals in the coarse scan of the launch window.
+     * @param tolerance Width of the bracket (in seconds) at which the search stops.
+     */
+    public LaunchPlanner(Objective objective, int scanSteps, double tolerance) {
+        this.objective = objective;
+        this.scanSteps = scanSteps;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Plans the launch of a launcher against a single projectile.
+     *
+     * @param projectile The projectile to be intercepted.
+     * @param launcher   The launcher attempting the interception.
+     * @param fromTime   The earliest launch time, usually the current simulation time.
+     * @return The plan for this projectile.
+     */
+    public Plan plan(Projectile projectile, Launcher launcher, double fromTime) {
+        double toTime = flightTime(projectile); // The projectile reaches the ground at this time
+        if (fromTime >= toTime) {
+            return new Plan(projectile, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        // Scan the window to find the best sample and the last feasible sample
+        double step = (toTime - fromTime) / scanSteps;
+        int best = -1, last = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i <= scanSteps; i++) {
+            double score = score(projectile, launcher, fromTime + i * step);
+            if (Double.isNaN(score)) continue;
+            last = i;
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return new Plan(projectile, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        // Refine the latest feasible launch time by bisection on the feasibility boundary
+        double latest = fromTime + last * step;
+        if (last < scanSteps) {
+            double infeasible = fromTime + (last + 1) * step;
+            while (infeasible - latest > tolerance) {
+                double mid = (latest + infeasible) / 2;
+                if (Double.isNaN(score(projectile, launcher, mid))) {
+                    infeasible = mid;
+                } else {
+                    latest = mid;
+                }
+            }
+        }
+
+        // Refine the best launch time inside the bracket around the best sample, up to the latest launch time
+        double lo = fromTime + Math.max(best - 1, 0) * step;
+        double hi = Math.min(fromTime + Math.min(best + 1, scanSteps) * step, latest);
+        double launchTime = Math.min(goldenSectionSearch(projectile, launcher, lo, hi), latest);
+        if (!(score(projectile, launcher, launchTime) > bestScore)) {
+            launchTime = fromTime + best * step; // Keep the sample if the refinement did not improve it
+        }
+
+        double[] interception = intercept(projectile, launcher, launchTime);
+        return new Plan(projectile, launchTime, interception[1], Math.toDegrees(interception[2]), latest);
+    }
+
+    /**
+     * Plans the launch of a launcher against several projectiles in parallel.
+     *
+     * @param projectiles The projectiles to be intercepted.
+     * @param launcher    The launcher attempting the interceptions.
+     * @param fromTime    The earliest launch time, usually the current simulation time.
+     * @return The plans, in the same order as the projectiles.
+     */
+    public List<Plan> planAll(List<Projectile> projectiles, Launcher launcher, double fromTime) {
+        return projectiles.parallelStream()
+                .map(p -> plan(p, launcher, fromTime))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Maximizes the score between two launch times with a golden-section search.
+     *
+     * @param projectile The projectile to be intercepted.
+     * @param launcher   The launcher attempting the interception.
+     * @param lo         The start of the bracket.
+     * @param hi         The end of the bracket.
+     * @return The launch time with the highest score found inside the bracket.
+     */
+    private double goldenSectionSearch(Projectile projectile, Launcher launcher, double lo, double hi) {
+        double a = hi - GOLDEN_RATIO * (hi - lo);
+        double b = lo + GOLDEN_RATIO * (hi - lo);
+        double fa = scoreOrWorst(projectile, launcher, a);
+        double fb = scoreOrWorst(projectile, launcher, b);
+        while (hi - lo > tolerance) {
+            if (fa >= fb) {
+                hi = b;
+                b = a;
+                fb = fa;
+                a = hi - GOLDEN_RATIO * (hi - lo);
+                fa = scoreOrWorst(projectile, launcher, a);
+            } else {
+                lo = a;
+                a = b;
+                fa = fb;
+                b = lo + GOLDEN_RATIO * (hi - lo);
+                fb = scoreOrWorst(projectile, launcher, b);
+            }
+        }
+        return fa >= fb ? a : b;
+    }
+
+    /**
+     * Returns the score of a launch time, treating infeasible launch times as the worst score.
+     */
+    private double scoreOrWorst(Projectile projectile, Launcher launcher, double launchTime) {
+        double score = score(projectile, launcher, launchTime);
+        return Double.isNaN(score) ? Double.NEGATIVE_INFINITY : score;
+    }
+
+    /**
+     * Calculates the score of launching at a given time.
+     *
+     * @return The score according to the objective, or NaN if the launch time is infeasible.
+     */
+    private double score(Projectile projectile, Launcher launcher, double launchTime) {
+        double[] interception = intercept(projectile, launcher, launchTime);
+        if (interception == null) return Double.NaN;
+        return objective == Objective.ALTITUDE ? interception[1] : elevation(interception[2]) - Value.minLaunchAngle;
+    }
+
+    /**
+     * Calculates the elevation of a launch angle above the nearest horizon.
+     *
+     * @param launchAngle The launch angle in radians, between 0 and pi.
+     * @return The elevation in degrees, between 0 and 90.
+     */
+    private static double elevation(double launchAngle) {
+        double degrees = Math.toDegrees(launchAngle);
+        return Math.min(degrees, 180 - degrees);
+    }
+
+    /**
+     * Calculates the interception point when the launcher launches at a given time.
+     *
+     * @param projectile The projectile to be intercepted.
+     * @param launcher   The launcher attempting the interception.
+     * @param launchTime The time at which the launcher launches.
+     * @return An array containing the interception X, Y and the launch angle in radians,
+     *         or null if the interception is not possible at this launch time or the launch is too shallow.
+     */
+    static double[] intercept(Projectile projectile, Launcher launcher, double launchTime) {
+        // Calculate the velocity of the projectile
+        double distance = Utility.calcDistance(projectile.getX(), projectile.getY(), projectile.getTargetX(), projectile.getTargetY());
+        double vX = Utility.calcVelocity(projectile.getX(), projectile.getTargetX(), distance, projectile.getSpeed());
+        double vY = Utility.calcVelocity(projectile.getY(), projectile.getTargetY(), distance, projectile.getSpeed());
+
+        // Calculate the position of the projectile at the launch time
+        double[] position = Utility.findCorrectPoint(projectile.getX(), projectile.getY(), vX, vY, launchTime);
+
+        // Calculate the time required to intercept the projectile and the interception point
+        double t = Utility.calcInterceptTime(position[0], position[1], launcher.getX(), launcher.getY(), vX, vY, launcher.getSpeed());
+        if (Double.isNaN(t)) return null;
+        double[] interceptionPoint = Utility.findCorrectPoint(position[0], position[1], vX, vY, t);
+        if (interceptionPoint[1] <= 0) return null;
+
+        // Calculate the required launch angle
+        double launchAngle = Math.atan2(interceptionPoint[1], interceptionPoint[0] - launcher.getX());
+        if (elevation(launchAngle) < Value.minLaunchAngle) return null;
+
+        return new double[] {interceptionPoint[0], interceptionPoint[1], launchAngle};
+    }
+
+    /**
+     * Calculates the time at which the projectile reaches the ground.
+     */
+    static double flightTime(Projectile projectile) {
+        return Utility.calcDistance(projectile.getX(), projectile.getY(), projectile.getTargetX(), projectile.getTargetY()) / projectile.getSpeed();
+    }
+
+    /**
+     * The Plan class holds the result of planning the launch against one projectile.
+     * All values are NaN if there is no feasible launch time in the window.
+     */
+    public static class Plan {
+        private final Projectile projectile;
+        private final double launchTime;       // The best launch time
+        private final double altitude;         // The interception altitude when launching at the best launch time
+        private final double launchAngle;      // The launch angle in degrees when launching at the best launch time
+        private final double latestLaunchTime; // The latest launch time that still allows interception
+
+        Plan(Projectile projectile, double launchTime, double altitude, double launchAngle, double latestLaunchTime) {
+            this.projectile = projectile;
+            this.launchTime = launchTime;
+            this.altitude = altitude;
+            this.launchAngle = launchAngle;
+            this.latestLaunchTime = latestLaunchTime;
+        }
+
+        // Getter methods for the planned values
+        public Projectile getProjectile() { return projectile; }
+        public double getLaunchTime() { return launchTime; }
+        public double getAltitude() { return altitude; }
+        public double getLaunchAngle() { return launchAngle; }
+        public double getLatestLaunchTime() { return latestLaunchTime; }
+
+        /**
+         * Checks if there is a feasible launch time in the window.
+         *
+         * @return True if the projectile can be intercepted; otherwise, false.
+         */
+        public boolean isFeasible() {
+            return !Double.isNaN(launchTime);
+        }
+
+        @Override
+        public String toString() {
+            if (!isFeasible()) return "Launch plan: no feasible launch time";
+            return "Launch plan: launch at " + launchTime + " s, interception altitude: " + altitude
+                    + ", launch angle: " + launchAngle + " degrees, latest launch at " + latestLaunchTime + " s";
+        }
+    }
+}
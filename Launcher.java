@@ -35,6 +35,20 @@ public class Launcher {
         currentY = y;                    // Initialize the current Y position
     }
 
+    /**
+     * Resets the launcher to a new starting position and speed so that it can be reused.
+     *
+     * @param x     The initial X-coordinate of the launcher.
+     * @param speed The speed of the launcher.
+     */
+    public void reset(double x, double speed) {
+        this.x = x;
+        this.y = 0;               // Launcher always starts at Y = 0
+        this.speed = speed;
+        currentX = x;
+        currentY = y;
+    }
+
     /**
      * Updates the current position of the launcher based on time and launch angle.
      *
@@ -91,7 +105,7 @@ public class Launcher {
      */
     public boolean intercepts(Projectile projectile) {
         // Calculate the distance between the launcher and the projectile
-        return Math.hypot(currentX - projectile.getCurrentX(), currentY - projectile.getCurrentY()) < 20;
+        return Math.hypot(currentX - projectile.getCurrentX(), currentY - projectile.getCurrentY()) < Value.killRadius;
     }
 
     /**
@@ -0,0 +1,579 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * The PlotPipeline class turns radar plots into launch commands through a chain of
+ * java.util.concurrent.Flow stages: plot ingestion, tracking, interception solving and the
+ * launch command consumer. Unlike Interception, it never reads the true projectile state;
+ * the projectile's velocity is estimated from its radar plots.
+ * Each stage runs on its own thread and receives items through a bounded lock-free queue.
+ * A stage only requests as many items as its queue can hold, so a slow stage applies
+ * backpressure all the way up to the plot ingestion.
+ * Plots, tracks and commands are taken round-robin from preallocated pools and tracks are
+ * kept in primitive arrays, so the steady-state pipeline does not allocate.
+ */
+public class PlotPipeline {
+
+    private static final int QUEUE_CAPACITY = 1024; // Capacity of the queue in front of each stage
+    private static final int POOL_SIZE = QUEUE_CAPACITY + 2; // Items published by a stage before one is reused, see Stage
+
+    private final Ingestor ingestor;
+    private final Stage<RadarPlot, Track> tracker;
+    private final Stage<Track, LaunchCommand> solver;
+
+    /**
+     * Constructor to wire the pipeline from a plot channel to a command subscriber.
+     *
+     * @param channel  The channel the radar plots are read from.
+     * @param tail     Whether to keep waiting for new plots at the end of the channel, as when tailing a file.
+     * @param launcher The launcher the launch commands are solved for.
+     * @param commands The subscriber receiving the launch commands.
+     */
+    public PlotPipeline(ReadableByteChannel channel, boolean tail, Launcher launcher, Flow.Subscriber<? super LaunchCommand> commands) {
+        ingestor = new Ingestor(channel, tail);
+        tracker = new Stage<>("tracker", Track::new, new Tracker());
+        solver = new Stage<>("solver", LaunchCommand::new, (track, command) -> solve(track, launcher, command));
+        ingestor.subscribe(tracker);
+        tracker.subscribe(solver);
+        solver.subscribe(commands);
+    }
+
+    /**
+     * Starts the threads of all stages.
+     */
+    public void start() {
+        solver.start();
+        tracker.start();
+        ingestor.start();
+    }
+
+    /**
+     * Stops reading plots once a number of bytes has been read from the channel. The plots read
+     * until then are still processed, then the pipeline completes.
+     * This is how a pipeline tailing a file is ended, once the writer has finished.
+     *
+     * @param bytes The number of bytes written to the channel, usually a multiple of RadarPlot.BYTES.
+     */
+    public void stopAfter(long bytes) {
+        ingestor.limit = bytes;
+    }
+
+    /**
+     * Solves the interception of a track if the launcher launches at the time of its latest plot.
+     *
+     * @param track    The track of the projectile.
+     * @param launcher The launcher attempting the interception.
+     * @param command  The command to write the launch command to.
+     * @return True if the interception is possible and the command was written; otherwise, false.
+     */
+    static boolean solve(Track track, Launcher launcher, LaunchCommand command) {
+        // Calculate the time required to intercept the projectile and the interception point
+        double t = Utility.calcInterceptTime(track.x, track.y, launcher.getX(), launcher.getY(), track.vX, track.vY, launcher.getSpeed());
+        if (Double.isNaN(t)) return false;
+        double iX = track.x + track.vX * t;
+        double iY = track.y + track.vY * t;
+        if (iY <= 0) return false;
+
+        // Calculate the required launch angle
+        double launchAngle = Math.atan2(iY, iX - launcher.getX());
+        if (Math.toDegrees(launchAngle) < Value.minLaunchAngle) return false;
+        command.set(track.trackId, track.time, launchAngle, iX, iY, track.stamp);
+        return true;
+    }
+
+    /**
+     * The Track class holds the estimated state of a projectile after its latest plot.
+     * Tracks are reused by the tracker stage.
+     */
+    public static class Track {
+        int trackId;     // Identifier of the tracked projectile
+        double time;     // Time of the latest plot
+        double x, y;     // Position of the latest plot
+        double vX, vY;   // Estimated velocity
+        long stamp;      // Emission stamp of the latest plot
+
+        void set(int trackId, double time, double x, double y, double vX, double vY, long stamp) {
+            this.trackId = trackId;
+            this.time = time;
+            this.x = x;
+            this.y = y;
+            this.vX = vX;
+            this.vY = vY;
+            this.stamp = stamp;
+        }
+    }
+
+    /**
+     * The LaunchCommand class holds the command to launch against a track.
+     * A new command is issued for every plot, so the latest command for a track supersedes the previous ones.
+     * Commands are reused by the solver stage, so a subscriber that keeps a command after onNext must copy it.
+     */
+    public static class LaunchCommand {
+        private int trackId;        // Identifier of the tracked projectile
+        private double time;        // Time at which to launch
+        private double launchAngle; // Launch angle in radians
+        private double iX, iY;      // The interception point's coordinates
+        private long stamp;         // Emission stamp of the plot the command was solved from
+
+        void set(int trackId, double time, double launchAngle, double iX, double iY, long stamp) {
+            this.trackId = trackId;
+            this.time = time;
+            this.launchAngle = launchAngle;
+            this.iX = iX;
+            this.iY = iY;
+            this.stamp = stamp;
+        }
+
+        // Getter methods for the command values
+        public int getTrackId() { return trackId; }
+        public double getTime() { return time; }
+        public double getLaunchAngle() { return launchAngle; }
+        public double getIX() { return iX; }
+        public double getIY() { return iY; }
+        public long getStamp() { return stamp; }
+    }
+
+    /**
+     * The Handler interface processes an item received by a stage into a reused result object.
+     *
+     * @param <T> The type of the items received.
+     * @param <R> The type of the results.
+     */
+    interface Handler<T, R> {
+        /**
+         * Processes an item.
+         *
+         * @param item   The item received.
+         * @param result The object to write the result to.
+         * @return True if a result was written and should be published; otherwise, false.
+         */
+        boolean handle(T item, R result);
+    }
+
+    /**
+     * The Tracker class estimates the velocity of each track from its first and latest plots,
+     * the same way Interception estimates it from the launch point and the radar point.
+     * The first plot of each track is kept in primitive arrays, in the slot given by the low bits
+     * of its track id. Radars number their tracks in sequence, so the tracks plotted at the same
+     * time use different slots, and a new track takes over the slot of the track numbered
+     * MAX_TRACKS before it.
+     * It is only called from the tracker stage's thread.
+     */
+    static class Tracker implements Handler<RadarPlot, Track> {
+        private static final int MAX_TRACKS = 4096; // Number of track slots, a power of two
+
+        // First plot of the track in each slot
+        private final boolean[] used = new boolean[MAX_TRACKS];
+        private final int[] trackIds = new int[MAX_TRACKS];
+        private final double[] firstTimes = new double[MAX_TRACKS];
+        private final double[] firstXs = new double[MAX_TRACKS], firstYs = new double[MAX_TRACKS];
+
+        @Override
+        public boolean handle(RadarPlot plot, Track track) {
+            int slot = plot.getTrackId() & (MAX_TRACKS - 1);
+            if (!used[slot] || trackIds[slot] != plot.getTrackId()) {
+                // First plot of a new track
+                used[slot] = true;
+                trackIds[slot] = plot.getTrackId();
+                firstTimes[slot] = plot.getTime();
+                firstXs[slot] = plot.getX();
+                firstYs[slot] = plot.getY();
+                return false; // Need two plots to estimate the velocity
+            }
+            if (plot.getTime() <= firstTimes[slot]) return false;
+            double dt = plot.getTime() - firstTimes[slot];
+            double vX = (plot.getX() - firstXs[slot]) / dt;
+            double vY = (plot.getY() - firstYs[slot]) / dt;
+            track.set(plot.getTrackId(), plot.getTime(), plot.getX(), plot.getY(), vX, vY, plot.getStamp());
+            return true;
+        }
+    }
+
+    /**
+     * The Ingestor class reads radar plots from a channel and publishes them.
+     * It waits for demand before publishing each plot, so it stops reading while the tracker is busy.
+     * Plots are read into a pool of reused plots, in the same way as the results of a Stage.
+     */
+    static class Ingestor implements Flow.Publisher<RadarPlot>, Runnable {
+        private final ReadableByteChannel channel; // The channel the plots are read from
+        private final boolean tail;                // Whether to keep waiting for new plots at the end of the channel
+        private final AtomicLong demand = new AtomicLong(); // Number of plots requested by the subscriber
+        private final RadarPlot[] plots = new RadarPlot[POOL_SIZE]; // Pool of plots, reused round-robin
+        private int next;                                            // Index of the next plot in the pool
+        private long position;                                       // Number of bytes read from the channel
+        private volatile long limit = Long.MAX_VALUE;                // Number of bytes after which to stop reading
+        private volatile boolean cancelled;
+        private Flow.Subscriber<? super RadarPlot> subscriber;
+
+        Ingestor(ReadableByteChannel channel, boolean tail) {
+            this.channel = channel;
+            this.tail = tail;
+            Arrays.setAll(plots, i -> new RadarPlot());
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super RadarPlot> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Demand(demand, () -> cancelled = true));
+        }
+
+        void start() {
+            Thread thread = new Thread(this, "ingestor");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(RadarPlot.BYTES * 1024);
+            Idle idle = new Idle();
+            try {
+                while (!cancelled && position < limit) {
+                    int read = channel.read(buffer);
+                    if (read < 0 && !tail) break;
+                    if (read <= 0) {
+                        idle.idle(); // Nothing new in the channel yet
+                        continue;
+                    }
+                    idle.reset();
+                    position += read;
+
+                    // Publish all complete plots and keep a partial plot for the next read
+                    buffer.flip();
+                    while (buffer.remaining() >= RadarPlot.BYTES && !cancelled) {
+                        while (demand.get() == 0 && !cancelled) {
+                            idle.idle(); // Backpressure: wait until the tracker has room
+                        }
+                        idle.reset();
+                        RadarPlot plot = plots[next];
+                        next = (next + 1) % plots.length;
+                        plot.readFrom(buffer);
+                        demand.decrementAndGet();
+                        subscriber.onNext(plot);
+                    }
+                    buffer.compact();
+                }
+                channel.close();
+                if (!cancelled) subscriber.onComplete();
+            } catch (Throwable e) {
+                if (!cancelled) subscriber.onError(e); // Also when the subscriber failed, so the pipeline does not hang
+            }
+        }
+    }
+
+    /**
+     * The Stage class is a Flow.Processor that handles each item on its own thread.
+     * Items are handed over through a single-producer single-consumer ring buffer. The stage
+     * requests one item from upstream for every item it has taken out of the buffer, so the
+     * buffer never overflows. Items for which the handler writes no result are dropped.
+     * Results are written into a pool of POOL_SIZE objects, reused round-robin. When a result is
+     * reused, the downstream stage has requested at most QUEUE_CAPACITY items beyond the ones it
+     * has taken out of its buffer, so it has already finished with that result.
+     * If the handler or the subscriber throws, the stage cancels upstream and passes the exception
+     * downstream with onError, so that the end of the pipeline is told instead of waiting forever.
+     *
+     * @param <T> The type of the items received.
+     * @param <R> The type of the items published.
+     */
+    static class Stage<T, R> implements Flow.Processor<T, R>, Runnable {
+        private final String name;
+        private final Handler<? super T, ? super R> handler;
+        private final R[] results; // Pool of results, reused round-robin
+        private int next;          // Index of the next result in the pool
+        private final RingBuffer<T> queue = new RingBuffer<>(QUEUE_CAPACITY);
+        private final AtomicLong demand = new AtomicLong(); // Number of items requested by the subscriber
+        private volatile boolean completed, cancelled;
+        private volatile Throwable error;
+        private Flow.Subscription upstream;
+        private Flow.Subscriber<? super R> subscriber;
+
+        @SuppressWarnings("unchecked")
+        Stage(String name, Supplier<? extends R> factory, Handler<? super T, ? super R> handler) {
+            this.name = name;
+            this.handler = handler;
+            this.results = (R[]) new Object[POOL_SIZE];
+            Arrays.setAll(results, i -> factory.get());
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super R> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Demand(demand, () -> {
+                cancelled = true;
+                upstream.cancel();
+            }));
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            subscription.request(QUEUE_CAPACITY);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (!queue.offer(item)) {
+                throw new IllegalStateException(name + ": received more items than requested");
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed = true;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        void start() {
+            Thread thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            Idle idle = new Idle();
+            try {
+                while (!cancelled) {
+                    T item = queue.poll();
+                    if (item == null) {
+                        if (completed && queue.isEmpty()) break; // Upstream is done and everything is drained
+                        idle.idle();
+                        continue;
+                    }
+                    idle.reset();
+                    upstream.request(1); // The slot is free again
+
+                    R result = results[next];
+                    if (!handler.handle(item, result)) continue;
+                    next = (next + 1) % results.length;
+                    while (demand.get() == 0 && !cancelled) {
+                        idle.idle(); // Backpressure: wait until the subscriber has room
+                    }
+                    idle.reset();
+                    demand.decrementAndGet();
+                    subscriber.onNext(result);
+                }
+            } catch (Throwable e) {
+                upstream.cancel(); // No more items will be taken
+                error = e;
+            }
+            if (error != null) {
+                subscriber.onError(error);
+            } else if (!cancelled) {
+                subscriber.onComplete();
+            }
+        }
+    }
+
+    /**
+     * The Demand class is a subscription that adds requested items to a demand counter.
+     */
+    static class Demand implements Flow.Subscription {
+        private final AtomicLong demand;
+        private final Runnable onCancel;
+
+        Demand(AtomicLong demand, Runnable onCancel) {
+            this.demand = demand;
+            this.onCancel = onCancel;
+        }
+
+        @Override
+        public void request(long n) {
+            demand.accumulateAndGet(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b); // Saturate on overflow
+        }
+
+        @Override
+        public void cancel() {
+            onCancel.run();
+        }
+    }
+
+    /**
+     * The RingBuffer class is a bounded lock-free queue for one producer thread and one consumer thread.
+     *
+     * @param <T> The type of the items in the queue.
+     */
+    static class RingBuffer<T> {
+        private final Object[] items;
+        private final int mask;
+        private final AtomicLong head = new AtomicLong(); // Index of the next item to poll
+        private final AtomicLong tail = new AtomicLong(); // Index of the next item to offer
+
+        RingBuffer(int capacity) {
+            if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("Capacity must be a power of two");
+            items = new Object[capacity];
+            mask = capacity - 1;
+        }
+
+        boolean offer(T item) {
+            long t = tail.get();
+            if (t - head.get() == items.length) return false; // Full
+            items[(int) t & mask] = item;
+            tail.lazySet(t + 1); // Publish the item to the consumer
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        T poll() {
+            long h = head.get();
+            if (h == tail.get()) return null; // Empty
+            T item = (T) items[(int) h & mask];
+            items[(int) h & mask] = null;
+            head.lazySet(h + 1); // Release the slot to the producer
+            return item;
+        }
+
+        boolean isEmpty() {
+            return head.get() == tail.get();
+        }
+    }
+
+    /**
+     * The Idle class waits for work with increasing back-off: it spins first to keep the hand-off
+     * latency low, then yields, and finally parks briefly so idle stages do not hold a core.
+     */
+    static class Idle {
+        private int count;
+
+        void idle() {
+            count++;
+            if (count < 100) {
+                Thread.onSpinWait();
+            } else if (count < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(20_000);
+            }
+        }
+
+        void reset() {
+            count = 0;
+        }
+    }
+
+    /**
+     * The LatencyRecorder class consumes launch commands and records the time from the emission
+     * of each plot to the arrival of its launch command. The first commands are the warm-up,
+     * while the JIT is still compiling the pipeline, and are counted but not recorded.
+     */
+    public static class LatencyRecorder implements Flow.Subscriber<LaunchCommand> {
+        private final long[] latencies; // Latencies in nanoseconds, up to the capacity
+        private final long warmUp;      // Number of commands not recorded at the start
+        private final CountDownLatch done = new CountDownLatch(1);
+        private long received;
+        private int count;
+        private Throwable error;
+
+        /**
+         * Constructor to initialize the recorder.
+         *
+         * @param capacity Maximum number of latencies recorded.
+         * @param warmUp   Number of commands not recorded at the start.
+         */
+        public LatencyRecorder(int capacity, long warmUp) {
+            latencies = new long[capacity];
+            this.warmUp = warmUp;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(LaunchCommand command) {
+            long latency = System.nanoTime() - command.getStamp();
+            if (received++ >= warmUp && count < latencies.length) latencies[count++] = latency;
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+        /**
+         * Waits until the pipeline has completed and returns a summary of the latencies.
+         *
+         * @return The number of commands and the latency percentiles in microseconds.
+         * @throws InterruptedException If interrupted while waiting.
+         */
+        public String await() throws InterruptedException {
+            done.await();
+            if (error != null) return "Pipeline failed: " + error;
+            if (count == 0) return "No launch commands after the warm-up (" + received + " in total)";
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return "Launch commands: " + received + " (" + (received - count) + " in the warm-up)"
+                    + ", plot to command latency (us) p50: " + sorted[count / 2] / 1000
+                    + ", p99: " + sorted[(int) (count * 0.99)] / 1000
+                    + ", p99.9: " + sorted[(int) (count * 0.999)] / 1000
+                    + ", max: " + sorted[count - 1] / 1000;
+        }
+    }
+
+    /**
+     * Runs the pipeline and reports the plot to command latency.
+     * Without a file, plots are replayed through a local socket; with a file, the file is tailed
+     * while the replayer appends to it. The first plotsPerSecond commands, about a second's worth,
+     * are the warm-up while the JIT is still compiling the pipeline, and their latency is not recorded.
+     * Usage: java PlotPipeline [plotsPerSecond] [seconds] [file]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        double rate = args.length > 0 ? Double.parseDouble(args[0]) : 50_000;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 5;
+        long count = (long) (rate * seconds);
+
+        ReadableByteChannel input;
+        PlotReplayer replayer;
+        boolean tail = args.length > 2;
+        if (tail) {
+            Path file = Path.of(args[2]);
+            replayer = new PlotReplayer(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), rate, count, 100, 1);
+            input = FileChannel.open(file, StandardOpenOption.READ);
+        } else {
+            ServerSocketChannel server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            SocketChannel client = SocketChannel.open(server.getLocalAddress());
+            SocketChannel accepted = server.accept();
+            server.close();
+            accepted.socket().setTcpNoDelay(true);
+            replayer = new PlotReplayer(accepted, rate, count, 100, 1);
+            input = client;
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder((int) count, (long) Math.min(rate, count / 2));
+        PlotPipeline pipeline = new PlotPipeline(input, tail, new Launcher(), recorder);
+        pipeline.start();
+        Thread replay = new Thread(replayer, "replayer");
+        replay.start();
+        replay.join();
+        if (tail) {
+            pipeline.stopAfter(count * RadarPlot.BYTES); // Read up to the end of what the replayer wrote
+        }
+        System.out.println(recorder.await());
+    }
+}
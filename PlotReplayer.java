@@ -0,0 +1,114 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The PlotReplayer class feeds radar plots of simulated projectiles into a channel at a fixed rate.
+ * It cycles through a number of projectiles with random positions, targets and speeds, and
+ * replaces each projectile with a new one under a new track id when it reaches the ground.
+ * It is used to drive the PlotPipeline from a local socket or a file.
+ */
+public class PlotReplayer implements Runnable {
+
+    private final WritableByteChannel channel; // The channel the plots are written to
+    private final double rate;                 // Number of plots per second
+    private final long count;                  // Total number of plots to write
+    private final Projectile[] projectiles;    // The projectiles currently tracked
+    private final int[] trackIds;              // Track id of each projectile
+    private final double[] spawnTimes;         // Time at which each projectile was launched
+    private final RadarPlot plot = new RadarPlot(); // Reused for every plot written
+    private final Random random;
+    private int nextTrackId;
+
+    /**
+     * Constructor to initialize the replayer.
+     *
+     * @param channel The channel the plots are written to.
+     * @param rate    Number of plots per second.
+     * @param count   Total number of plots to write.
+     * @param tracks  Number of projectiles tracked at the same time.
+     * @param seed    Seed of the random projectile parameters.
+     */
+    public PlotReplayer(WritableByteChannel channel, double rate, long count, int tracks, long seed) {
+        this.channel = channel;
+        this.rate = rate;
+        this.count = count;
+        this.projectiles = new Projectile[tracks];
+        this.trackIds = new int[tracks];
+        this.spawnTimes = new double[tracks];
+        this.random = new Random(seed);
+        for (int i = 0; i < tracks; i++) {
+            projectiles[i] = new Projectile();
+            spawn(i, 0);
+        }
+    }
+
+    /**
+     * Writes the plots to the channel, pacing them to the configured rate.
+     * Plots that are due at the same time are written together.
+     */
+    @Override
+    public void run() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(RadarPlot.BYTES * 1024);
+        long start = System.nanoTime();
+        long written = 0;
+        try {
+            while (written < count) {
+                // Collect all plots that are due by now
+                long due = Math.min(count, (long) ((System.nanoTime() - start) * rate / 1e9) + 1);
+                buffer.clear();
+                while (written < due && buffer.remaining() >= RadarPlot.BYTES) {
+                    plot(written++).write(buffer);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+
+                // Wait until the next plot is due
+                long next = start + (long) (written * 1e9 / rate);
+                long wait = next - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+            }
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot write radar plots", e);
+        }
+    }
+
+    /**
+     * Creates the plot with a given index. Plots go round-robin over the tracked projectiles.
+     *
+     * @param index The index of the plot.
+     * @return The plot, stamped with the current time. It is overwritten by the next call.
+     */
+    private RadarPlot plot(long index) {
+        int i = (int) (index % projectiles.length);
+        double time = index / rate;
+        projectiles[i].update(time - spawnTimes[i]);
+        if (projectiles[i].isOutOfBounds()) {
+            spawn(i, time);
+            projectiles[i].update(0);
+        }
+        plot.set(trackIds[i], time, projectiles[i].getCurrentX(), projectiles[i].getCurrentY(), System.nanoTime());
+        return plot;
+    }
+
+    /**
+     * Launches a new random projectile in a slot, reusing the slot's projectile.
+     *
+     * @param i    The slot of the projectile.
+     * @param time The launch time.
+     */
+    private void spawn(int i, double time) {
+        projectiles[i].reset(
+                Value.projectileXMin + random.nextInt(Value.projectileXMax - Value.projectileXMin + 1),
+                Value.projectileYMax / 2 + random.nextInt(Value.projectileYMax / 2 + 1),
+                Value.speedMin + random.nextInt(Value.speedDefault - Value.speedMin + 1),
+                Value.impactXMin + random.nextInt(Value.impactXMax - Value.impactXMin + 1));
+        trackIds[i] = nextTrackId++;
+        spawnTimes[i] = time;
+    }
+}
@@ -42,6 +42,24 @@ public class Projectile {
         currentY = y;                      // Initialize the current Y position
     }
 
+    /**
+     * Resets the projectile to a new starting position, speed, and target so that it can be reused.
+     *
+     * @param x       The initial X-coordinate of the projectile.
+     * @param y       The initial Y-coordinate of the projectile.
+     * @param speed   The speed of the projectile.
+     * @param targetX The target X-coordinate for the projectile.
+     */
+    public void reset(double x, double y, double speed, double targetX) {
+        this.x = x;
+        this.y = y;
+        this.speed = speed;
+        this.targetX = targetX;
+        this.targetY = 0;             // Projectiles always aim for Y = 0
+        currentX = x;
+        currentY = y;
+    }
+
     // Getter methods for the initial and current positions, target, and speed
     public double getX() { return x; }
     public double getY() { return y; }
@@ -0,0 +1,85 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The RadarPlot class represents a single radar measurement of a projectile's position.
+ * Plots are exchanged in a compact fixed-size binary format:
+ * track id (int), plot time (double), x (double), y (double) and emission stamp (long),
+ * in big-endian byte order, for a total of BYTES bytes per plot.
+ * A plot can be overwritten with set or readFrom, so that a stream of plots does not allocate.
+ */
+public class RadarPlot {
+    public static final int BYTES = Integer.BYTES + 3 * Double.BYTES + Long.BYTES; // Size of one encoded plot
+
+    private int trackId;  // Identifier of the tracked projectile
+    private double time;  // Simulation time at which the plot was measured
+    private double x, y;  // Measured position of the projectile
+    private long stamp;   // System.nanoTime() when the plot was emitted, used to measure latency
+
+    /**
+     * Default constructor to create an empty plot, to be filled with set or readFrom.
+     */
+    public RadarPlot() {
+    }
+
+    /**
+     * Constructor to initialize the plot with a measured position.
+     *
+     * @param trackId Identifier of the tracked projectile.
+     * @param time    Simulation time at which the plot was measured.
+     * @param x       Measured X-coordinate of the projectile.
+     * @param y       Measured Y-coordinate of the projectile.
+     * @param stamp   System.nanoTime() when the plot was emitted.
+     */
+    public RadarPlot(int trackId, double time, double x, double y, long stamp) {
+        set(trackId, time, x, y, stamp);
+    }
+
+    /**
+     * Sets the values of the plot so that it can be reused.
+     * The parameters are the same as for the constructor.
+     */
+    public void set(int trackId, double time, double x, double y, long stamp) {
+        this.trackId = trackId;
+        this.time = time;
+        this.x = x;
+        this.y = y;
+        this.stamp = stamp;
+    }
+
+    // Getter methods for the plot values
+    public int getTrackId() { return trackId; }
+    public double getTime() { return time; }
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public long getStamp() { return stamp; }
+
+    /**
+     * Writes the plot to a buffer in the binary format.
+     *
+     * @param buffer The buffer to write to. It must have at least BYTES bytes remaining.
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(trackId).putDouble(time).putDouble(x).putDouble(y).putLong(stamp);
+    }
+
+    /**
+     * Reads a plot from a buffer in the binary format.
+     *
+     * @param buffer The buffer to read from. It must have at least BYTES bytes remaining.
+     * @return The plot read from the buffer.
+     */
+    public static RadarPlot read(ByteBuffer buffer) {
+        RadarPlot plot = new RadarPlot();
+        plot.readFrom(buffer);
+        return plot;
+    }
+
+    /**
+     * Reads the values of the plot from a buffer in the binary format, overwriting its previous values.
+     *
+     * @param buffer The buffer to read from. It must have at least BYTES bytes remaining.
+     */
+    public void readFrom(ByteBuffer buffer) {
+        set(buffer.getInt(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getLong());
+    }
+}
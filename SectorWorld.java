@@ -0,0 +1,503 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * The SectorWorld class updates a dense raid of projectiles and interceptors on several threads.
+ * The battlespace (x from Value.launcherXMin to Value.launcherXMax) is split into vertical sectors,
+ * and each worker thread owns a fixed set of sectors. A tick runs in three phases separated by barriers:
+ * 1. Move: every sector moves its entities and hands the ones that crossed its border to the neighbor.
+ * 2. Migrate: every sector takes in the entities handed to it and publishes the entities within the
+ *    kill radius of its borders as halos.
+ * 3. Intercept: every sector checks its own entities against its own entities and the neighbors' halos.
+ * An entity is destroyed if an entity of the other kind is within the kill radius. This rule does not
+ * depend on the order of the checks, so the result is the same for any number of sectors and threads.
+ */
+public class SectorWorld {
+
+    public static final byte PROJECTILE = 0, INTERCEPTOR = 1; // The kinds of entities
+
+    private static final double TICK = 0.016;  // Simulated time per tick (~16 ms), as in InterceptionSimulation
+    private static final double X_MIN = Value.launcherXMin, X_MAX = Value.launcherXMax + 1; // Extent of the battlespace
+    private static final double Y_MAX = 1000;  // Entities above this altitude have left the battlespace
+    private static final double HALO = Value.killRadius + 1; // Width of the halos, with slack for rounding at the borders
+
+    private final Sector[] sectors;
+    private final double sectorWidth;
+    private final Worker[] workers;
+    private final CyclicBarrier phaseBarrier; // Separates the phases of a tick, shared by the workers and the caller
+    private volatile Throwable failure;       // First exception thrown by a worker during a phase
+    private long ticks;
+
+    /**
+     * Constructor to split the entities of a scene into sectors.
+     *
+     * @param scene   The entities at the start of the simulation.
+     * @param sectors The number of sectors. It is reduced so that a sector is at least one halo wide.
+     * @param threads The number of worker threads, or 0 to run every phase on the calling thread.
+     */
+    public SectorWorld(Entities scene, int sectors, int threads) {
+        int count = Math.max(1, Math.min(sectors, (int) ((X_MAX - X_MIN) / HALO)));
+        if (Value.speedMax * TICK >= HALO) {
+            throw new IllegalStateException("Entities could cross more than one sector per tick");
+        }
+        this.sectorWidth = (X_MAX - X_MIN) / count;
+        this.sectors = new Sector[count];
+        for (int s = 0; s < count; s++) {
+            this.sectors[s] = new Sector(s, X_MIN + s * sectorWidth, s == count - 1 ? X_MAX : X_MIN + (s + 1) * sectorWidth);
+        }
+        for (int i = 0; i < scene.count; i++) {
+            if (scene.x[i] >= X_MIN && scene.x[i] < X_MAX) {
+                this.sectors[sectorOf(scene.x[i])].entities.copy(scene, i);
+            }
+        }
+        for (Sector sector : this.sectors) {
+            sector.publishHalos();
+        }
+
+        threads = Math.min(threads, count);
+        this.workers = new Worker[threads];
+        this.phaseBarrier = threads > 0 ? new CyclicBarrier(threads + 1) : null;
+        for (int w = 0; w < threads; w++) {
+            workers[w] = new Worker(w, threads);
+            workers[w].start();
+        }
+    }
+
+    /**
+     * Advances the world by one tick.
+     *
+     * @throws IllegalStateException If a worker failed during this or an earlier tick, with the worker's exception as the cause.
+     */
+    public void tick() {
+        checkFailure();
+        if (workers.length == 0) {
+            for (Sector sector : sectors) sector.move();
+            for (Sector sector : sectors) sector.migrate();
+            for (Sector sector : sectors) sector.intercept();
+        } else {
+            // The caller takes part in the barriers so that it knows when each phase has finished
+            for (int phase = 0; phase < 4; phase++) {
+                await();
+            }
+            checkFailure();
+        }
+        ticks++;
+    }
+
+    private void checkFailure() {
+        Throwable cause = failure;
+        if (cause != null) {
+            throw new IllegalStateException("A worker failed during a tick", cause);
+        }
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void close() {
+        for (Worker worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Returns the index of the sector owning an X coordinate inside the battlespace.
+     */
+    private int sectorOf(double x) {
+        return Math.min(sectors.length - 1, (int) ((x - X_MIN) / sectorWidth));
+    }
+
+    private void await() {
+        try {
+            phaseBarrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during a tick", e);
+        } catch (BrokenBarrierException e) {
+            throw new IllegalStateException("A worker failed during a tick", e);
+        }
+    }
+
+    // Getter methods for the state of the world, summed over all sectors
+    public int getSectorCount() { return sectors.length; }
+    public int getThreadCount() { return workers.length; }
+    public long getTicks() { return ticks; }
+
+    public int getEntityCount() {
+        int count = 0;
+        for (Sector sector : sectors) count += sector.entities.count;
+        return count;
+    }
+
+    public long getKills() {
+        long kills = 0;
+        for (Sector sector : sectors) kills += sector.kills;
+        return kills;
+    }
+
+    public long getImpacts() {
+        long impacts = 0;
+        for (Sector sector : sectors) impacts += sector.impacts;
+        return impacts;
+    }
+
+    /**
+     * Calculates a checksum of the identifiers and exact positions of all entities.
+     * The checksum does not depend on the order of the entities, so it can be compared
+     * between worlds with different numbers of sectors.
+     *
+     * @return The checksum.
+     */
+    public long checksum() {
+        long sum = 0;
+        for (Sector sector : sectors) {
+            Entities e = sector.entities;
+            for (int i = 0; i < e.count; i++) {
+                long h = e.id[i] * 0x9E3779B97F4A7C15L;
+                h ^= Double.doubleToLongBits(e.x[i]) * 0xC2B2AE3D27D4EB4FL;
+                h ^= Double.doubleToLongBits(e.y[i]) * 0x165667B19E3779F9L;
+                sum += h ^ (h >>> 31);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Creates a scene of projectiles, each already engaged by an interceptor launched at time 0.
+     * The interceptor flies toward the interception point, or straight up if the projectile
+     * cannot be intercepted above the ground.
+     *
+     * @param engagements The number of projectile and interceptor pairs.
+     * @param seed        Seed of the random positions and speeds.
+     * @return The entities of the scene.
+     */
+    public static Entities createScene(int engagements, long seed) {
+        Random random = new Random(seed);
+        Entities scene = new Entities(2 * engagements);
+        for (int i = 0; i < engagements; i++) {
+            Projectile projectile = new Projectile(
+                    Value.projectileXMin + random.nextInt(Value.projectileXMax - Value.projectileXMin + 1),
+                    Value.projectileYMin + random.nextInt(Value.projectileYMax - Value.projectileYMin + 1),
+                    Value.speedMin + random.nextInt(Value.speedMax - Value.speedMin + 1),
+                    Value.impactXMin + random.nextInt(Value.impactXMax - Value.impactXMin + 1));
+            Launcher launcher = new Launcher(
+                    Value.launcherXMin + random.nextInt(Value.launcherXMax - Value.launcherXMin + 1),
+                    Value.speedMin + random.nextInt(Value.speedMax - Value.speedMin + 1));
+
+            double distance = Utility.calcDistance(projectile.getX(), projectile.getY(), projectile.getTargetX(), projectile.getTargetY());
+            double vX = Utility.calcVelocity(projectile.getX(), projectile.getTargetX(), distance, projectile.getSpeed());
+            double vY = Utility.calcVelocity(projectile.getY(), projectile.getTargetY(), distance, projectile.getSpeed());
+            scene.add(2 * i, PROJECTILE, projectile.getX(), projectile.getY(), vX, vY);
+
+            double t = Utility.calcInterceptTime(projectile.getX(), projectile.getY(), launcher.getX(), launcher.getY(), vX, vY, launcher.getSpeed());
+            double iX = projectile.getX() + vX * t, iY = projectile.getY() + vY * t;
+            double launchAngle = iY > 0 ? Math.atan2(iY, iX - launcher.getX()) : Math.PI / 2; // False for NaN
+
+            scene.add(2 * i + 1, INTERCEPTOR, launcher.getX(), launcher.getY(),
+                    launcher.getSpeed() * Math.cos(launchAngle), launcher.getSpeed() * Math.sin(launchAngle));
+        }
+        return scene;
+    }
+
+    /**
+     * The Entities class stores moving entities as parallel arrays that grow as needed.
+     */
+    public static class Entities {
+        int count;
+        int[] id;
+        byte[] kind;
+        double[] x, y, vX, vY;
+
+        public Entities(int capacity) {
+            capacity = Math.max(capacity, 16);
+            id = new int[capacity];
+            kind = new byte[capacity];
+            x = new double[capacity];
+            y = new double[capacity];
+            vX = new double[capacity];
+            vY = new double[capacity];
+        }
+
+        public int getCount() { return count; }
+
+        public void add(int id, byte kind, double x, double y, double vX, double vY) {
+            if (count == this.id.length) grow();
+            this.id[count] = id;
+            this.kind[count] = kind;
+            this.x[count] = x;
+            this.y[count] = y;
+            this.vX[count] = vX;
+            this.vY[count] = vY;
+            count++;
+        }
+
+        void copy(Entities from, int i) {
+            add(from.id[i], from.kind[i], from.x[i], from.y[i], from.vX[i], from.vY[i]);
+        }
+
+        void addAll(Entities from) {
+            for (int i = 0; i < from.count; i++) copy(from, i);
+        }
+
+        /**
+         * Removes an entity by moving the last entity into its place.
+         */
+        void remove(int i) {
+            count--;
+            id[i] = id[count];
+            kind[i] = kind[count];
+            x[i] = x[count];
+            y[i] = y[count];
+            vX[i] = vX[count];
+            vY[i] = vY[count];
+        }
+
+        private void grow() {
+            int capacity = id.length * 2;
+            id = Arrays.copyOf(id, capacity);
+            kind = Arrays.copyOf(kind, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            vX = Arrays.copyOf(vX, capacity);
+            vY = Arrays.copyOf(vY, capacity);
+        }
+    }
+
+    /**
+     * The Sector class holds the entities inside one vertical strip of the battlespace.
+     * All its fields are written only by the thread owning the sector. Its neighbors read its
+     * outboxes during the migrate phase and its halos during the intercept phase.
+     */
+    private class Sector {
+        private final int index;
+        private final double lo, hi;  // The sector covers lo <= x < hi
+        private final Entities entities = new Entities(1024);
+        private final Entities outLeft = new Entities(64), outRight = new Entities(64); // Entities crossing the borders
+        private final Entities haloLeft = new Entities(256), haloRight = new Entities(256); // Entities near the borders
+        private long kills, impacts;
+
+        // Scratch space of the intercept phase: own entities followed by the neighbors' halos, bucketed in a grid
+        private final Entities candidates = new Entities(1024);
+        private final int columns, rows;
+        private final int[] cellStart;
+        private int[] cellItems = new int[1024];
+        private boolean[] destroyed = new boolean[1024];
+
+        Sector(int index, double lo, double hi) {
+            this.index = index;
+            this.lo = lo;
+            this.hi = hi;
+            columns = (int) Math.ceil((hi - lo + 2 * HALO) / Value.killRadius) + 1;
+            rows = (int) Math.ceil(Y_MAX / Value.killRadius) + 1;
+            cellStart = new int[columns * rows + 1];
+        }
+
+        /**
+         * Moves the entities and hands the ones that left the sector to the neighbors.
+         */
+        void move() {
+            outLeft.count = 0;
+            outRight.count = 0;
+            Entities e = entities;
+            for (int i = 0; i < e.count; ) {
+                e.x[i] += e.vX[i] * TICK;
+                e.y[i] += e.vY[i] * TICK;
+                if (e.kind[i] == PROJECTILE && e.y[i] < 0) {
+                    impacts++; // The projectile reached the ground
+                    e.remove(i);
+                } else if (e.x[i] < X_MIN || e.x[i] >= X_MAX || e.y[i] < 0 || e.y[i] > Y_MAX) {
+                    e.remove(i); // The entity left the battlespace
+                } else if (e.x[i] < lo || e.x[i] >= hi) {
+                    int target = sectorOf(e.x[i]);
+                    if (target == index - 1) {
+                        outLeft.copy(e, i);
+                    } else if (target == index + 1) {
+                        outRight.copy(e, i);
+                    } else if (target != index) {
+                        throw new IllegalStateException("Entity " + e.id[i] + " skipped a sector");
+                    }
+                    if (target != index) {
+                        e.remove(i);
+                    } else {
+                        i++;
+                    }
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        /**
+         * Takes in the entities handed over by the neighbors and publishes the halos.
+         */
+        void migrate() {
+            if (index > 0) entities.addAll(sectors[index - 1].outRight);
+            if (index < sectors.length - 1) entities.addAll(sectors[index + 1].outLeft);
+            publishHalos();
+        }
+
+        void publishHalos() {
+            haloLeft.count = 0;
+            haloRight.count = 0;
+            Entities e = entities;
+            for (int i = 0; i < e.count; i++) {
+                if (e.x[i] < lo + HALO) haloLeft.copy(e, i);
+                if (e.x[i] >= hi - HALO) haloRight.copy(e, i);
+            }
+        }
+
+        /**
+         * Destroys every own entity that has an entity of the other kind within the kill radius,
+         * looking at the own entities and the neighbors' halos.
+         */
+        void intercept() {
+            // Gather the candidates and bucket them in a grid of kill-radius cells
+            candidates.count = 0;
+            candidates.addAll(entities);
+            if (index > 0) candidates.addAll(sectors[index - 1].haloRight);
+            if (index < sectors.length - 1) candidates.addAll(sectors[index + 1].haloLeft);
+            Entities c = candidates;
+            if (cellItems.length < c.count) cellItems = new int[c.id.length];
+            Arrays.fill(cellStart, 0);
+            for (int j = 0; j < c.count; j++) cellStart[cell(column(c.x[j]), row(c.y[j])) + 1]++;
+            for (int k = 1; k < cellStart.length; k++) cellStart[k] += cellStart[k - 1];
+            for (int j = 0; j < c.count; j++) {
+                int cell = cell(column(c.x[j]), row(c.y[j]));
+                cellItems[cellStart[cell]++] = j;
+            }
+            for (int k = cellStart.length - 1; k > 0; k--) cellStart[k] = cellStart[k - 1]; // Restore the starts
+            cellStart[0] = 0;
+
+            // Check every own entity against the candidates in the surrounding cells
+            Entities e = entities;
+            if (destroyed.length < e.count) destroyed = new boolean[e.id.length];
+            double r2 = Value.killRadius * Value.killRadius;
+            for (int i = 0; i < e.count; i++) {
+                destroyed[i] = false;
+                int column = column(e.x[i]), row = row(e.y[i]);
+                search:
+                for (int cx = Math.max(0, column - 1); cx <= Math.min(columns - 1, column + 1); cx++) {
+                    for (int cy = Math.max(0, row - 1); cy <= Math.min(rows - 1, row + 1); cy++) {
+                        int cell = cell(cx, cy);
+                        for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                            int j = cellItems[k];
+                            double dx = c.x[j] - e.x[i], dy = c.y[j] - e.y[i];
+                            if (c.kind[j] != e.kind[i] && dx * dx + dy * dy < r2) {
+                                destroyed[i] = true;
+                                break search;
+                            }
+                        }
+                    }
+                }
+            }
+
+            // Remove the destroyed entities, from the back so that the flags stay aligned
+            for (int i = e.count - 1; i >= 0; i--) {
+                if (destroyed[i]) {
+                    kills++;
+                    e.remove(i);
+                }
+            }
+        }
+
+        private int column(double x) {
+            return Math.max(0, Math.min(columns - 1, (int) ((x - lo + HALO) / Value.killRadius)));
+        }
+
+        private int row(double y) {
+            return Math.max(0, Math.min(rows - 1, (int) (y / Value.killRadius)));
+        }
+
+        private int cell(int column, int row) {
+            return row * columns + column;
+        }
+    }
+
+    /**
+     * The Worker class runs the phases of every tick for the sectors it owns:
+     * sectors w, w + threads, w + 2 * threads, etc.
+     * If a phase throws, the worker records the exception for tick() and keeps taking part in the
+     * barriers without running further phases, so that the caller is released instead of waiting forever.
+     */
+    private class Worker extends Thread {
+        private final int first, step;
+
+        Worker(int first, int step) {
+            super("sector-worker-" + first);
+            this.first = first;
+            this.step = step;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    phaseBarrier.await(); // Wait for the next tick
+                    for (int phase = 0; phase < 3; phase++) {
+                        runPhase(phase);
+                        phaseBarrier.await(); // After the last phase, the tick has finished
+                    }
+                }
+            } catch (InterruptedException | BrokenBarrierException e) {
+                phaseBarrier.reset(); // Release the other threads
+            }
+        }
+
+        /**
+         * Runs one phase on the owned sectors, recording any exception instead of letting it end the thread.
+         */
+        private void runPhase(int phase) {
+            if (failure != null) return; // The world is inconsistent after a failure
+            try {
+                for (int s = first; s < sectors.length; s += step) {
+                    switch (phase) {
+                        case 0: sectors[s].move(); break;
+                        case 1: sectors[s].migrate(); break;
+                        default: sectors[s].intercept(); break;
+                    }
+                }
+            } catch (Throwable e) {
+                synchronized (SectorWorld.this) {
+                    if (failure == null) failure = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a scene with an increasing number of threads and compares every run with a
+     * single-threaded run with one sector.
+     * Usage: java SectorWorld [entities] [ticks] [maxThreads]
+     */
+    public static void main(String[] args) {
+        int entities = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Entities scene = createScene(entities / 2, 1);
+
+        SectorWorld reference = new SectorWorld(scene, 1, 0);
+        long start = System.nanoTime();
+        for (int t = 0; t < ticks; t++) reference.tick();
+        double referenceMs = (System.nanoTime() - start) / 1e6 / ticks;
+        System.out.printf("reference: 1 sector, 0 threads, %.2f ms/tick, entities left: %d, kills: %d, impacts: %d%n",
+                referenceMs, reference.getEntityCount(), reference.getKills(), reference.getImpacts());
+
+        double singleMs = 0;
+        for (int threads = 1; ; threads = Math.min(2 * threads, maxThreads)) {
+            SectorWorld world = new SectorWorld(scene, 4 * threads, threads);
+            start = System.nanoTime();
+            for (int t = 0; t < ticks; t++) world.tick();
+            double ms = (System.nanoTime() - start) / 1e6 / ticks;
+            if (threads == 1) singleMs = ms;
+            boolean match = world.checksum() == reference.checksum() && world.getKills() == reference.getKills()
+                    && world.getImpacts() == reference.getImpacts();
+            System.out.printf("%d sectors, %d threads: %.2f ms/tick, speedup %.2f, matches reference: %b%n",
+                    world.getSectorCount(), world.getThreadCount(), ms, singleMs / ms, match);
+            world.close();
+            if (threads >= maxThreads) break;
+        }
+    }
+}
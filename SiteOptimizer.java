@@ -0,0 +1,266 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The SiteOptimizer class searches for the K launcher positions and speeds that defend the largest
+ * share of a distribution of threats. A threat is defended if at least one launcher can intercept it
+ * when the radar detects it, under the same constraints as LaunchPlanner.
+ * Each candidate speed has a cost, and the total cost of the K launchers must stay within a budget;
+ * otherwise the fastest speed would always be the best choice.
+ * The engagement envelope of every candidate site (position and speed) is precomputed once as a bit set
+ * over the sampled threats, so a set of K sites is scored by OR-ing K bit sets instead of simulating.
+ * The search runs several simulated annealing chains in parallel and keeps the best result.
+ */
+public class SiteOptimizer {
+
+    private final int[] positions;  // Candidate launcher X-coordinates
+    private final int[] speeds;     // Candidate launcher speeds
+    private final double[] costs;   // Cost of a launcher at each candidate speed
+    private final int threatCount;  // Number of sampled threats
+    private final int words;        // Number of longs in each bit set
+    private final long[][] envelopes; // Threats defended by each site, indexed by position * speeds.length + speed
+
+    /**
+     * Constructor to precompute the engagement envelope of every candidate site.
+     *
+     * @param threats   The sampled threats.
+     * @param radarTime The time at which the radar detects each threat and the launcher launches.
+     * @param positions The candidate launcher X-coordinates.
+     * @param speeds    The candidate launcher speeds, for example the speeds of the available launcher types.
+     * @param costs     The cost of a launcher at each candidate speed.
+     */
+    public SiteOptimizer(List<Projectile> threats, double radarTime, int[] positions, int[] speeds, double[] costs) {
+        if (costs.length != speeds.length) {
+            throw new IllegalArgumentException("Expected one cost per speed");
+        }
+        this.positions = positions;
+        this.speeds = speeds;
+        this.costs = costs;
+        this.threatCount = threats.size();
+        this.words = (threatCount + 63) / 64;
+        this.envelopes = new long[positions.length * speeds.length][];
+        IntStream.range(0, envelopes.length).parallel().forEach(site -> {
+            Launcher launcher = new Launcher(positions[site / speeds.length], speeds[site % speeds.length]);
+            long[] envelope = new long[words];
+            for (int i = 0; i < threatCount; i++) {
+                if (LaunchPlanner.intercept(threats.get(i), launcher, radarTime) != null) {
+                    envelope[i >>> 6] |= 1L << i;
+                }
+            }
+            envelopes[site] = envelope;
+        });
+    }
+
+    /**
+     * Samples threats from uniform distributions of launch points, impact points and speeds.
+     *
+     * @param count     The number of threats.
+     * @param xMin      The minimum launch X-coordinate.
+     * @param xMax      The maximum launch X-coordinate.
+     * @param yMin      The minimum launch Y-coordinate.
+     * @param yMax      The maximum launch Y-coordinate.
+     * @param impactMin The minimum impact X-coordinate.
+     * @param impactMax The maximum impact X-coordinate.
+     * @param speedMin  The minimum speed.
+     * @param speedMax  The maximum speed.
+     * @param seed      Seed of the random sampling.
+     * @return The sampled threats.
+     */
+    public static List<Projectile> sampleThreats(int count, int xMin, int xMax, int yMin, int yMax, int impactMin, int impactMax,
+                                                 int speedMin, int speedMax, long seed) {
+        Random random = new Random(seed);
+        List<Projectile> threats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            threats.add(new Projectile(
+                    xMin + random.nextInt(xMax - xMin + 1),
+                    yMin + random.nextInt(yMax - yMin + 1),
+                    speedMin + random.nextInt(speedMax - speedMin + 1),
+                    impactMin + random.nextInt(impactMax - impactMin + 1)));
+        }
+        return threats;
+    }
+
+    /**
+     * Returns the candidate values from min to max with a given step.
+     */
+    public static int[] range(int min, int max, int step) {
+        return IntStream.iterate(min, v -> v <= max, v -> v + step).toArray();
+    }
+
+    /**
+     * Scores a set of sites as the share of threats defended by at least one of them.
+     *
+     * @param sites   The sites, as indices into the envelopes.
+     * @param scratch A bit set of the size of an envelope, overwritten by the scoring.
+     * @return The share of defended threats, between 0 and 1.
+     */
+    double score(int[] sites, long[] scratch) {
+        Arrays.fill(scratch, 0);
+        for (int site : sites) {
+            long[] envelope = envelopes[site];
+            for (int w = 0; w < words; w++) scratch[w] |= envelope[w];
+        }
+        int defended = 0;
+        for (int w = 0; w < words; w++) defended += Long.bitCount(scratch[w]);
+        return (double) defended / threatCount;
+    }
+
+    /**
+     * Returns the total cost of a set of sites.
+     */
+    double cost(int[] sites) {
+        double cost = 0;
+        for (int site : sites) cost += costs[site % speeds.length];
+        return cost;
+    }
+
+    /**
+     * Searches for the best K sites within a budget with parallel simulated annealing chains.
+     *
+     * @param k          The number of launchers.
+     * @param budget     The maximum total cost of the launchers.
+     * @param chains     The number of independent chains, run in parallel.
+     * @param iterations The number of moves in each chain.
+     * @param seed       Seed of the chains.
+     * @return The best solution found by any chain.
+     * @throws IllegalArgumentException If the budget cannot pay for K launchers at the cheapest speed.
+     */
+    public Solution optimize(int k, double budget, int chains, int iterations, long seed) {
+        int cheapest = 0;
+        for (int s = 1; s < speeds.length; s++) {
+            if (costs[s] < costs[cheapest]) cheapest = s;
+        }
+        if (k * costs[cheapest] > budget) {
+            throw new IllegalArgumentException("The budget cannot pay for " + k + " launchers at the cheapest speed");
+        }
+        int start = cheapest;
+        return IntStream.range(0, chains).parallel()
+                .mapToObj(chain -> anneal(k, budget, start, iterations, new SplittableRandom(seed + chain)))
+                .max(Comparator.comparingDouble(Solution::getCoverage))
+                .orElseThrow();
+    }
+
+    /**
+     * Runs one simulated annealing chain, starting from random positions at the cheapest speed.
+     * A move shifts one launcher to a nearby position, with a reach that shrinks as the chain cools,
+     * or changes its speed. A speed change that would exceed the budget is replaced by a shift.
+     */
+    private Solution anneal(int k, double budget, int cheapest, int iterations, SplittableRandom random) {
+        long[] scratch = new long[words];
+        int[] current = new int[k];
+        for (int i = 0; i < k; i++) current[i] = random.nextInt(positions.length) * speeds.length + cheapest;
+        double currentScore = score(current, scratch);
+        double currentCost = cost(current);
+        int[] best = current.clone();
+        double bestScore = currentScore, bestCost = currentCost;
+
+        double startTemperature = 0.05, endTemperature = 0.0005; // In units of coverage
+        for (int n = 0; n < iterations; n++) {
+            double progress = (double) n / iterations;
+            double temperature = startTemperature * Math.pow(endTemperature / startTemperature, progress);
+
+            // Move one launcher
+            int i = random.nextInt(k);
+            int previous = current[i];
+            int position = previous / speeds.length, speed = previous % speeds.length;
+            int newSpeed = speeds.length > 1 && random.nextInt(4) == 0 ? random.nextInt(speeds.length) : speed;
+            if (newSpeed != speed && currentCost - costs[speed] + costs[newSpeed] <= budget) {
+                speed = newSpeed;
+            } else { // Shift the position instead of keeping the speed or going over budget
+                int reach = Math.max(1, (int) (positions.length * (1 - progress) / 2));
+                position = Math.max(0, Math.min(positions.length - 1, position + random.nextInt(2 * reach + 1) - reach));
+            }
+            current[i] = position * speeds.length + speed;
+
+            // Accept improvements, and worse sets with a probability that falls as the chain cools
+            double score = score(current, scratch);
+            if (score >= currentScore || random.nextDouble() < Math.exp((score - currentScore) / temperature)) {
+                currentScore = score;
+                currentCost = cost(current);
+                if (score > bestScore || (score == bestScore && currentCost < bestCost)) { // Same coverage for less
+                    bestScore = score;
+                    bestCost = currentCost;
+                    best = current.clone();
+                }
+            } else {
+                current[i] = previous;
+            }
+        }
+        return new Solution(best, bestScore, bestCost);
+    }
+
+    /**
+     * The Solution class holds a set of launcher sites, the share of threats they defend and their cost.
+     */
+    public class Solution {
+        private final int[] sites;
+        private final double coverage;
+        private final double cost;
+
+        Solution(int[] sites, double coverage, double cost) {
+            this.sites = sites.clone();
+            Arrays.sort(this.sites);
+            this.coverage = coverage;
+            this.cost = cost;
+        }
+
+        /**
+         * Returns the launchers placed at the sites of this solution.
+         *
+         * @return The launchers, ordered by position.
+         */
+        public List<Launcher> getLaunchers() {
+            return Arrays.stream(sites)
+                    .mapToObj(site -> new Launcher(positions[site / speeds.length], speeds[site % speeds.length]))
+                    .collect(Collectors.toList());
+        }
+
+        public double getCoverage() { return coverage; }
+        public double getCost() { return cost; }
+
+        @Override
+        public String toString() {
+            return "Coverage: " + coverage + ", cost: " + cost + ", launchers (x, speed): " + getLaunchers().stream()
+                    .map(l -> "(" + (int) l.getX() + ", " + (int) l.getSpeed() + ")")
+                    .collect(Collectors.joining(" "));
+        }
+    }
+
+    /**
+     * Optimizes the sites for threats sampled over the full parameter ranges of the simulation.
+     * A launcher costs its speed divided by the default speed, so a launcher at the default speed costs 1.
+     * The default budget pays for the launchers at 4 times the default speed on average.
+     * Usage: java SiteOptimizer [launchers] [threats] [iterations] [budget]
+     */
+    public static void main(String[] args) {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int threatCount = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        double budget = args.length > 3 ? Double.parseDouble(args[3]) : 4.0 * k;
+        int chains = Runtime.getRuntime().availableProcessors();
+
+        List<Projectile> threats = sampleThreats(threatCount, Value.projectileXMin, Value.projectileXMax,
+                Value.projectileYMin, Value.projectileYMax, Value.impactXMin, Value.impactXMax,
+                Value.speedMin, Value.speedMax, 1);
+        long start = System.nanoTime();
+        int[] speeds = range(Value.speedDefault, Value.speedMax, 100);
+        double[] costs = Arrays.stream(speeds).mapToDouble(speed -> (double) speed / Value.speedDefault).toArray();
+        SiteOptimizer optimizer = new SiteOptimizer(threats, Value.radarDefault,
+                range(Value.launcherXMin, Value.launcherXMax, 5), speeds, costs);
+        System.out.printf("Envelopes of %d sites over %d threats computed in %d ms%n",
+                optimizer.envelopes.length, threatCount, (System.nanoTime() - start) / 1_000_000);
+
+        start = System.nanoTime();
+        Solution solution = optimizer.optimize(k, budget, chains, iterations, 1);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%d chains of %d moves in %d ms (%.2f us per scored set)%n",
+                chains, iterations, elapsed / 1_000_000, elapsed / 1e3 / ((double) chains * iterations));
+        System.out.println(solution);
+    }
+}
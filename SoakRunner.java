@@ -0,0 +1,258 @@
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * The SoakRunner class runs a sustained raid for a long time without the user interface.
+ * A raid generator keeps spawning projectiles at a configurable rate, and every projectile is
+ * engaged by its own launcher with Interception.step, as in InterceptionSimulation.
+ * Projectiles, launchers and interceptions are taken from a fixed pool and reset for reuse,
+ * so the steady-state tick does not allocate. The allocation of the ticks is measured with the
+ * thread allocation counter and reported with GC pauses, heap occupancy and tick-time jitter.
+ * GC pauses are taken from the collectors' notifications, leaving out concurrent cycles.
+ */
+public class SoakRunner {
+
+    private static final double TICK = 0.016; // Simulated time per tick (~16 ms), as in InterceptionSimulation
+
+    private final double spawnRate;    // Number of projectiles spawned per second
+    private long randomState; // State of the raid generator's random numbers
+
+    // The pool of engagements, one projectile, launcher and interception per slot
+    private final Projectile[] projectiles;
+    private final Launcher[] launchers;
+    private final Interception[] interceptions;
+    private final double[] spawnTimes; // Time at which the projectile of each slot was spawned
+    private final double[] radarTimes; // Radar time of each slot, relative to its spawn time
+
+    private final int[] free;   // Stack of free slots
+    private int freeCount;
+    private final int[] active; // Slots currently engaged
+    private int activeCount;
+
+    private double time;        // Time elapsed in the simulation
+    private double spawnDebt;   // Fraction of a projectile still to be spawned
+    private long spawned, intercepted, failed, impossible, dropped; // Engagement counters
+
+    /**
+     * Constructor to initialize the runner with a fixed pool of engagements.
+     *
+     * @param spawnRate Number of projectiles spawned per second.
+     * @param poolSize  Maximum number of engagements at the same time. Spawns beyond it are dropped.
+     * @param seed      Seed of the raid generator.
+     */
+    public SoakRunner(double spawnRate, int poolSize, long seed) {
+        this.spawnRate = spawnRate;
+        this.randomState = seed;
+        projectiles = new Projectile[poolSize];
+        launchers = new Launcher[poolSize];
+        interceptions = new Interception[poolSize];
+        spawnTimes = new double[poolSize];
+        radarTimes = new double[poolSize];
+        free = new int[poolSize];
+        active = new int[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            projectiles[i] = new Projectile();
+            launchers[i] = new Launcher();
+            interceptions[i] = new Interception(projectiles[i], launchers[i]);
+            free[freeCount++] = poolSize - 1 - i;
+        }
+    }
+
+    /**
+     * Advances the raid by one tick: spawns new projectiles, then steps every engagement.
+     * It does not allocate.
+     */
+    public void tick() {
+        time += TICK;
+
+        // Spawn the projectiles due in this tick
+        spawnDebt += spawnRate * TICK;
+        while (spawnDebt >= 1) {
+            spawnDebt--;
+            spawn();
+        }
+
+        // Step every engagement, releasing the finished ones
+        for (int k = 0; k < activeCount; ) {
+            if (step(active[k])) {
+                free[freeCount++] = active[k];
+                active[k] = active[--activeCount]; // Move the last engagement into this place
+            } else {
+                k++;
+            }
+        }
+    }
+
+    /**
+     * Takes a slot from the pool and resets it with a random projectile and launcher.
+     */
+    private void spawn() {
+        spawned++;
+        if (freeCount == 0) {
+            dropped++; // The pool is exhausted
+            return;
+        }
+        int i = free[--freeCount];
+        projectiles[i].reset(
+                Value.projectileXMin + nextInt(Value.projectileXMax - Value.projectileXMin + 1),
+                Value.projectileYMin + nextInt(Value.projectileYMax - Value.projectileYMin + 1),
+                Value.speedMin + nextInt(Value.speedDefault - Value.speedMin + 1),
+                Value.impactXMin + nextInt(Value.impactXMax - Value.impactXMin + 1));
+        launchers[i].reset(
+                Value.launcherXMin + nextInt(Value.launcherXMax - Value.launcherXMin + 1),
+                Value.speedDefault + nextInt(Value.speedMax - Value.speedDefault + 1));
+        interceptions[i].reset();
+        spawnTimes[i] = time;
+        radarTimes[i] = Value.radarMin + nextInt((int) Math.round((Value.radarMax - Value.radarMin) / Value.radarStep) + 1) * Value.radarStep;
+        active[activeCount++] = i;
+    }
+
+    /**
+     * Returns a pseudo-random number from 0 (inclusive) to bound (exclusive).
+     * It uses a SplitMix64 step instead of java.util.Random, whose nextInt(bound) has a rejection loop
+     * that is taken so rarely that its first use, minutes into a run, makes the JIT deoptimize the tick
+     * and allocate.
+     */
+    private int nextInt(int bound) {
+        long z = (randomState += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (int) (((z >>> 11) * 0x1.0p-53) * bound); // Uniform double in [0, 1) scaled to the bound
+    }
+
+    /**
+     * Steps one engagement with Interception.step and counts its outcome.
+     *
+     * @param i The slot of the engagement.
+     * @return True if the engagement has finished; otherwise, false.
+     */
+    private boolean step(int i) {
+        double t = time - spawnTimes[i]; // Time since the projectile was spawned
+        Interception.Status status = Interception.step(projectiles[i], launchers[i], interceptions[i], t, radarTimes[i]);
+        if (status == Interception.Status.INTERCEPTED) {
+            intercepted++;
+        } else if (status == Interception.Status.FAILED) {
+            failed++;
+        } else if (status == Interception.Status.IMPOSSIBLE) {
+            impossible++;
+        }
+        return status != Interception.Status.RUNNING;
+    }
+
+    /**
+     * Runs the raid and prints a report line every report interval.
+     * Usage: java SoakRunner [seconds] [spawnsPerSecond] [poolSize] [reportSeconds] [fast]
+     * With "fast", ticks run back to back instead of every 16 ms.
+     * The first report interval is the warm-up. Any later interval in which the ticks allocate is flagged,
+     * and the runner then exits with status 1.
+     * The ticks themselves do not allocate, but when the JIT deoptimizes a tick at a rarely taken branch
+     * (for example a negative discriminant in Utility.calcInterceptTime), the JVM allocates a few hundred bytes on that
+     * thread. Run with -XX:PerMethodTrapLimit=0 -XX:PerBytecodeTrapLimit=0 to compile those branches
+     * up front for a strict zero-allocation check.
+     */
+    public static void main(String[] args) {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 3600;
+        double rate = args.length > 1 ? Double.parseDouble(args[1]) : 200;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        double reportSeconds = args.length > 3 ? Double.parseDouble(args[3]) : 10;
+        boolean fast = args.length > 4 && args[4].equals("fast");
+
+        SoakRunner runner = new SoakRunner(rate, poolSize, 1);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        GcPauses gcPauses = new GcPauses();
+
+        int ticksPerReport = (int) Math.max(1, Math.round(reportSeconds / TICK));
+        long totalTicks = Math.round(seconds / TICK);
+        long[] tickNanos = new long[ticksPerReport]; // Duration of each tick in the current report interval
+        long period = (long) (TICK * 1e9);
+        long next = System.nanoTime();
+
+        if (!"0".equals(ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).getVMOption("PerMethodTrapLimit").getValue())) {
+            System.out.println("Note: without -XX:PerMethodTrapLimit=0 -XX:PerBytecodeTrapLimit=0, JIT deoptimizations at rare branches may allocate");
+        }
+        long allocatingIntervals = 0; // Intervals after the warm-up in which the ticks allocated
+        System.out.println("time(s)  active  spawned  intercepted  failed  impossible  dropped  tickAlloc(B)  gcPauses  gcPause(ms)  maxPause(ms)  heapUsed(MB)  tick p50/p99/max(us)");
+        for (long tick = 0; tick < totalTicks; ) {
+            // Run one report interval of ticks, measuring the allocation of the ticks only
+            long allocated = 0;
+            int n = 0;
+            for (; n < ticksPerReport && tick < totalTicks; n++, tick++) {
+                if (!fast) {
+                    next += period;
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) LockSupport.parkNanos(wait);
+                }
+                long bytes = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                runner.tick();
+                tickNanos[n] = System.nanoTime() - start;
+                allocated += threads.getCurrentThreadAllocatedBytes() - bytes;
+            }
+
+            // Report the interval
+            Arrays.sort(tickNanos, 0, n);
+            long[] pauses = gcPauses.takeInterval();
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            boolean warmUp = tick <= ticksPerReport;
+            if (!warmUp && allocated > 0) allocatingIntervals++;
+            System.out.printf("%7.0f  %6d  %7d  %11d  %6d  %10d  %7d  %12d  %8d  %11d  %12d  %12.1f  %d/%d/%d%s%n",
+                    runner.time, runner.activeCount, runner.spawned, runner.intercepted, runner.failed, runner.impossible, runner.dropped,
+                    allocated, pauses[0], pauses[1], pauses[2], heap.getUsed() / 1048576.0,
+                    tickNanos[n / 2] / 1000, tickNanos[(int) (n * 0.99)] / 1000, tickNanos[n - 1] / 1000,
+                    warmUp ? "  (warm-up)" : allocated > 0 ? "  ALLOCATED" : "");
+        }
+
+        if (allocatingIntervals > 0) {
+            System.err.println("Steady-state ticks allocated in " + allocatingIntervals + " report interval(s)");
+            System.exit(1);
+        }
+        System.out.println("Steady-state ticks made no allocations");
+    }
+
+    /**
+     * The GcPauses class adds up the pauses of all garbage collectors from their notifications.
+     * Concurrent cycles, which do not stop the application threads, are left out.
+     * Notifications arrive on a separate thread, so the allocation of the ticks is not affected.
+     */
+    private static class GcPauses implements NotificationListener {
+        private long count, total, max; // Number of pauses, total and longest pause (ms) in the current interval
+
+        GcPauses() {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) collector).addNotificationListener(this, null, null);
+            }
+        }
+
+        @Override
+        public synchronized void handleNotification(Notification notification, Object handback) {
+            if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            if (info.getGcAction().equals("end of GC cycle")) return; // A concurrent cycle, not a pause
+            long duration = info.getGcInfo().getDuration();
+            count++;
+            total += duration;
+            max = Math.max(max, duration);
+        }
+
+        /**
+         * Returns the pauses of the current interval and starts the next one.
+         *
+         * @return The number of pauses, the total pause time and the longest pause in milliseconds.
+         */
+        synchronized long[] takeInterval() {
+            long[] pauses = {count, total, max};
+            count = total = max = 0;
+            return pauses;
+        }
+    }
+}
@@ -29,26 +29,55 @@ public class Utility {
      * @param vX             Velocity of the projectile in the X direction.
      * @param vY             Velocity of the projectile in the Y direction.
      * @param launcherSpeed  Speed of the launcher.
-     * @return The time required for interception.
+     * @return The time required for interception, or 0 if the launcher cannot meet the projectile.
      */
     public static double calcT(double projectileX, double projectileY, double launcherX, double launcherY, double vX, double vY, double launcherSpeed) {
+        double t = calcInterceptTime(projectileX, projectileY, launcherX, launcherY, vX, vY, launcherSpeed);
+        return Double.isNaN(t) ? 0 : t;
+    }
+
+    /**
+     * Calculates the earliest time at which a launcher can meet a projectile moving at a constant velocity.
+     * It treats the equation as linear when the launcher and the projectile have (nearly) the same speed,
+     * where rounding would otherwise leave a tiny quadratic coefficient and a meaningless root. The result
+     * is checked by comparing the launcher's flight time to the interception point with the projectile's.
+     *
+     * @param projectileX    X-coordinate of the projectile.
+     * @param projectileY    Y-coordinate of the projectile.
+     * @param launcherX      X-coordinate of the launcher.
+     * @param launcherY      Y-coordinate of the launcher.
+     * @param vX             Velocity of the projectile in the X direction.
+     * @param vY             Velocity of the projectile in the Y direction.
+     * @param launcherSpeed  Speed of the launcher.
+     * @return The time required for interception, or NaN if the launcher cannot meet the projectile.
+     */
+    public static double calcInterceptTime(double projectileX, double projectileY, double launcherX, double launcherY, double vX, double vY, double launcherSpeed) {
         // Coefficients of the quadratic equation
-        double a = -Math.pow(launcherSpeed, 2) + Math.pow(vX, 2) + Math.pow(vY, 2);
-        double b = 2 * ((projectileX - launcherX) * vX + (projectileY - launcherY) * vY);
-        double c = Math.pow(projectileX - launcherX, 2) + Math.pow(projectileY - launcherY, 2);
-
-        // Solve the quadratic equation for time
-        double tP = solveQuadraticPlus(a, b, c);
-        double tM = solveQuadraticMinus(a, b, c);
-
-        // Determine the valid time
-        if (tP < 0 && tM > 0) {
-            return tM; // Return the positive time
-        } else if (tM < 0 && tP > 0) {
-            return tP; // Return the positive time
+        double dx = projectileX - launcherX, dy = projectileY - launcherY;
+        double a = vX * vX + vY * vY - launcherSpeed * launcherSpeed;
+        double b = 2 * (dx * vX + dy * vY);
+        double c = dx * dx + dy * dy;
+
+        double t;
+        if (Math.abs(a) <= 1e-9 * launcherSpeed * launcherSpeed) {
+            t = b < 0 ? -c / b : Double.NaN; // Equal speeds: the launcher can only meet a projectile coming closer
         } else {
-            return Math.min(tP, tM); // Return the smaller positive time
+            double discriminant = b * b - 4 * a * c;
+            if (discriminant < 0) return Double.NaN; // No real roots
+
+            // Numerically stable roots, then the smaller positive one
+            double q = -(b + Math.copySign(Math.sqrt(discriminant), b)) / 2;
+            double t1 = q / a, t2 = q != 0 ? c / q : Double.NaN;
+            t = Double.NaN;
+            if (t1 > 0) t = t1;
+            if (t2 > 0 && !(t2 >= t)) t = t2;
         }
+        if (!(t > 0)) return Double.NaN;
+
+        // The launcher must need exactly the same time to reach the interception point
+        double launcherTime = Math.hypot(dx + vX * t, dy + vY * t) / launcherSpeed;
+        if (Math.abs(launcherTime - t) > 1e-6 * Math.max(1, t)) return Double.NaN;
+        return t;
     }
 
     /**
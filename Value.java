@@ -27,4 +27,8 @@ public class Value {
     public final static double radarStep = 0.1; //Defines the incremental step for radar operations.
     public final static double radarMin = 0.1, radarMax = 2; //The minimum and maximum allowable radar scale factors.
     public final static double radarDefault = 1; //Default radar scale factor.
+
+    //Interception Settings:
+    public final static double minLaunchAngle = 20; //The minimum allowable launch angle in degrees.
+    public final static double killRadius = 20; //The distance at which a launcher destroys a projectile.
 }